@@ -0,0 +1,191 @@
+package com.chungho.snippet;
+
+import com.chungho.snippet.common.DynamoDB;
+import com.chungho.snippet.common.MyPrint;
+import com.chungho.snippet.common.MySQL;
+import com.chungho.snippet.common.PostgreSQL;
+import com.chungho.snippet.common.Redis;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 앱 시작 시 외부 백엔드(MySQL / PostgreSQL / Redis / DynamoDB)를 병렬로 초기화해서
+ * 시작 시간을 합이 아니라 가장 느린 것 하나만큼으로 줄이고, 배포 직후 첫 요청이 풀 생성 / cold-start를 기다리지 않게 한다.
+ * - 빈이 만들어지면 백엔드마다 데몬 스레드를 띄우고 바로 리턴 (나머지 스프링 초기화와도 겹쳐서 진행)
+ * - 실패하면 백오프(1초 → 30초)를 두고 성공할 때까지 다시 시도
+ * - 미리 초기화한 백엔드가 모두 준비되어야 ready, 그 전까지 /healthCheck는 503
+ * - 대상은 STARTUP_BACKENDS (콤마 구분), 없으면 설정된 백엔드만 (isConfigured: URL / 드라이버 / 환경변수가 있는 것)
+ *   설정되지 않은 백엔드(빈 URL, 드라이버 없음)를 기다리느라 계속 503이 되지 않도록. 대상이 아닌 백엔드는 처음 쓸 때 준비.
+ */
+@Component
+public class BackendInitializer implements InitializingBean, DisposableBean {
+
+    public enum State {
+        PENDING,
+        READY,
+        // 마지막 시도가 실패해서 다시 시도하는 중
+        RETRYING,
+    }
+
+    @FunctionalInterface
+    interface Initializer {
+        void run() throws Exception;
+    }
+
+    private static final long RETRY_BASE_DELAY_MILLIS = 1000;
+    private static final long RETRY_MAX_DELAY_MILLIS = 30_000;
+
+    private final Map<String, Initializer> backends = new LinkedHashMap<>();
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean ready;
+    private volatile boolean closed;
+    private long startNanos;
+
+    public BackendInitializer() {
+        this(selectBackends(System.getenv("STARTUP_BACKENDS")));
+    }
+
+    /**
+     * @param backends 미리 초기화할 백엔드 (이름 → 초기화 함수), 모두 준비되어야 ready
+     */
+    BackendInitializer(Map<String, Initializer> backends) {
+        this.backends.putAll(backends);
+
+        for (String name : backends.keySet()) {
+            states.put(name, State.PENDING);
+        }
+
+        ready = backends.isEmpty();
+        MyPrint.printf("startup backends: " + backends.keySet());
+    }
+
+    private static Map<String, Initializer> selectBackends(String env) {
+        Map<String, Initializer> all = new LinkedHashMap<>();
+        all.put("mysql", MySQL::initialize);
+        all.put("postgresql", PostgreSQL::initialize);
+        all.put("redis", Redis::initialize);
+        all.put("dynamodb", DynamoDB::initialize);
+
+        Map<String, Boolean> configured = new LinkedHashMap<>();
+        configured.put("mysql", MySQL.isConfigured());
+        configured.put("postgresql", PostgreSQL.isConfigured());
+        configured.put("redis", Redis.isConfigured());
+        configured.put("dynamodb", DynamoDB.isConfigured());
+
+        Map<String, Initializer> selected = new LinkedHashMap<>();
+
+        if (env == null || env.isBlank() == true) {
+            for (Map.Entry<String, Initializer> backend : all.entrySet()) {
+                if (configured.get(backend.getKey()) == true) {
+                    selected.put(backend.getKey(), backend.getValue());
+                }
+            }
+
+            return selected;
+        }
+
+        for (String name : env.split(",")) {
+            String key = name.trim().toLowerCase();
+
+            if (all.containsKey(key) == true) {
+                if (configured.get(key) == false) {
+                    MyPrint.warn("STARTUP_BACKENDS includes " + key + " but it does not look configured, /healthCheck stays 503 until it connects");
+                }
+
+                selected.put(key, all.get(key));
+            } else if (key.isEmpty() == false) {
+                MyPrint.warn("Unknown backend in STARTUP_BACKENDS: " + key);
+            }
+        }
+
+        return selected;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        startNanos = System.nanoTime();
+
+        for (Map.Entry<String, Initializer> backend : backends.entrySet()) {
+            Thread thread = new Thread(() -> initialize(backend.getKey(), backend.getValue()), "backend-init-" + backend.getKey());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+     * 백엔드별 상태 (헬스 체크 응답용).
+     */
+    public Map<String, State> getStates() {
+        Map<String, State> copy = new LinkedHashMap<>();
+
+        for (String name : backends.keySet()) {
+            copy.put(name, states.get(name));
+        }
+
+        return copy;
+    }
+
+    private void initialize(String name, Initializer initializer) {
+        long delay = RETRY_BASE_DELAY_MILLIS;
+
+        while (closed == false) {
+            try {
+                initializer.run();
+                markReady(name);
+
+                return;
+            } catch (Exception e) {
+                states.put(name, State.RETRYING);
+                MyPrint.printf(e);
+
+                long retryDelay = delay;
+                MyPrint.warn(() -> name + " initialization failed, retry in " + retryDelay + "ms");
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            delay = Math.min(RETRY_MAX_DELAY_MILLIS, delay * 2);
+        }
+    }
+
+    private synchronized void markReady(String name) {
+        states.put(name, State.READY);
+        MyPrint.printf(name + " ready in " + elapsedMillis() + "ms");
+
+        if (ready == false && states.values().stream().allMatch(state -> state == State.READY) == true) {
+            ready = true;
+            MyPrint.printf("all backends ready in " + elapsedMillis() + "ms");
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -1,12 +1,25 @@
 package com.chungho.snippet;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HealthCheckController {
+    private final BackendInitializer backendInitializer;
+
+    public HealthCheckController(BackendInitializer backendInitializer) {
+        this.backendInitializer = backendInitializer;
+    }
+
+    // 백엔드 초기화가 끝나기 전에는 503 (로드 밸런서가 아직 트래픽을 보내지 않도록)
     @GetMapping("/healthCheck")
-    public String health() {
-        return "OK";
+    public ResponseEntity<String> health() {
+        if (backendInitializer.isReady() == false) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("NOT READY " + backendInitializer.getStates());
+        }
+
+        return ResponseEntity.ok("OK");
     }
 }
@@ -0,0 +1,18 @@
+package com.chungho.snippet;
+
+import com.chungho.snippet.common.SESOutbox;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/*
+ * 앱 종료 시 SES outbox dispatcher를 멈추고 로그 채널을 닫는다.
+ * 진행 중인 발송이 끝나고 완료 기록이 남을 때까지 최대 5초 기다리므로, 정상 종료에서는 재시작 후 중복 발송이 생기지 않음.
+ */
+@Component
+public class SESOutboxShutdown implements DisposableBean {
+
+    @Override
+    public void destroy() {
+        SESOutbox.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+package com.chungho.snippet;
+
+import com.chungho.snippet.common.SlowQueryLog;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 느린 쿼리 조회 (운영자용).
+ * - SLOW_QUERY_TOKEN 환경 변수가 없으면 404 (엔드포인트 비활성), X-Slow-Query-Token 헤더가 다르면 403
+ * - 기본은 지문(리터럴을 ?로 바꾼 SQL)과 통계만, detail=true일 때만 리터럴이 남은 sampleSql과 EXPLAIN 포함
+ */
+@RestController
+public class SlowQueryController {
+
+    static final String TOKEN_HEADER = "X-Slow-Query-Token";
+
+    private final byte[] token;
+
+    public SlowQueryController() {
+        String value = System.getenv("SLOW_QUERY_TOKEN");
+        this.token = value == null || value.isEmpty() == true ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 지문과 통계만 (sampleSql, explain 제외)
+    public static class Summary {
+        public final String source;
+        public final String fingerprint;
+        public final long count;
+        public final double maxMillis;
+        public final double avgMillis;
+
+        Summary(SlowQueryLog.Entry entry) {
+            this.source = entry.source;
+            this.fingerprint = entry.fingerprint;
+            this.count = entry.count;
+            this.maxMillis = entry.maxMillis;
+            this.avgMillis = entry.avgMillis;
+        }
+    }
+
+    // 최근 구간의 느린 쿼리 (최대 실행 시간 순)
+    @GetMapping("/slowQueries")
+    public ResponseEntity<?> slowQueries(@RequestHeader(value = TOKEN_HEADER, required = false) String requestToken,
+                                         @RequestParam(defaultValue = "20") int limit,
+                                         @RequestParam(defaultValue = "false") boolean detail) {
+        if (token == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // 길이 / 내용을 시간 차로 흘리지 않도록 MessageDigest.isEqual로 비교
+        if (requestToken == null || MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8)) == false) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        List<SlowQueryLog.Entry> entries = SlowQueryLog.getInstance().getTop(Math.max(0, limit));
+
+        if (detail == true) {
+            return ResponseEntity.ok(entries);
+        }
+
+        List<Summary> summaries = new ArrayList<>(entries.size());
+
+        for (SlowQueryLog.Entry entry : entries) {
+            summaries.add(new Summary(entry));
+        }
+
+        return ResponseEntity.ok(summaries);
+    }
+}
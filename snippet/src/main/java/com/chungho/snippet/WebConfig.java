@@ -0,0 +1,16 @@
+package com.chungho.snippet;
+
+import com.chungho.snippet.common.EncryptedStreamHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EncryptedStreamHttpMessageConverter());
+    }
+}
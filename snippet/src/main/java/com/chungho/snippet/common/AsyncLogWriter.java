@@ -0,0 +1,261 @@
+package com.chungho.snippet.common;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * MyPrint 비동기 출력기.
+ * - 여러 요청 스레드가 락 없이 넣는 고정 크기 링 버퍼 (슬롯별 시퀀스 번호로 자리 선점 / 발행)
+ * - 백그라운드 스레드 하나가 모아서 한 번에 stdout 또는 파일에 씀
+ * - 버퍼가 가득 찼을 때: DROP(버리고 개수만 기록) 또는 BLOCK(자리가 날 때까지 대기)
+ * - 종료 시 shutdown hook에서 남은 로그를 모두 쓰고 flush
+ *
+ * 환경변수
+ *  MYPRINT_FILE        : 출력 파일 경로 (없으면 stdout)
+ *  MYPRINT_BUFFER_SIZE : 링 버퍼 크기 (2의 거듭제곱으로 올림, 기본 8192)
+ *  MYPRINT_FULL_POLICY : DROP | BLOCK (기본 DROP)
+ */
+public final class AsyncLogWriter {
+
+	public enum FullPolicy {
+		DROP,
+		BLOCK,
+	}
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	// 한 번에 모아서 쓰는 최대 로그 수
+	private static final int MAX_BATCH = 512;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final AsyncLogWriter INSTANCE = new AsyncLogWriter();
+
+	private final int capacity;
+	private final int mask;
+	private final String[] slots;
+	// 슬롯 i의 시퀀스: == pos 이면 pos 번째 생산자가 쓸 수 있음, == pos + 1 이면 소비자가 읽을 수 있음
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private long head;
+
+	private final FullPolicy fullPolicy;
+	private final AtomicLong dropped = new AtomicLong();
+	private final OutputStream out;
+	private final Thread writer;
+	private volatile boolean waiting;
+	private volatile boolean running = true;
+
+	private AsyncLogWriter() {
+		int size = DEFAULT_BUFFER_SIZE;
+		String value = System.getenv("MYPRINT_BUFFER_SIZE");
+
+		if (value != null && value.isEmpty() == false) {
+			try {
+				size = Math.max(2, Integer.parseInt(value));
+			} catch (NumberFormatException e) {
+				System.err.println(e.getMessage());
+			}
+		}
+
+		capacity = Integer.highestOneBit(size - 1) << 1;
+		mask = capacity - 1;
+		slots = new String[capacity];
+		sequences = new AtomicLongArray(capacity);
+
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+
+		fullPolicy = "BLOCK".equalsIgnoreCase(System.getenv("MYPRINT_FULL_POLICY")) ? FullPolicy.BLOCK : FullPolicy.DROP;
+		out = openOutput(System.getenv("MYPRINT_FILE"));
+
+		writer = new Thread(this::drainLoop, "myprint-writer");
+		writer.setDaemon(true);
+		writer.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "myprint-shutdown"));
+	}
+
+	public static AsyncLogWriter getInstance() {
+		return INSTANCE;
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/*
+	 * 한 줄(줄바꿈 제외)을 버퍼에 넣음. 종료 이후에는 바로 씀.
+	 */
+	public void write(String line) {
+		if (running == false) {
+			writeDirect(line);
+			return;
+		}
+
+		while (true) {
+			long pos = tail.get();
+			int index = (int) (pos & mask);
+			long diff = sequences.get(index) - pos;
+
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1) == true) {
+					slots[index] = line;
+					sequences.set(index, pos + 1);
+
+					// running 확인 후 발행하기 전에 종료가 시작되었으면 마지막 drain이 이 줄을 지나쳤을 수 있으므로 직접 비움
+					if (running == false) {
+						drainRemaining();
+						return;
+					}
+
+					if (waiting == true) {
+						LockSupport.unpark(writer);
+					}
+
+					return;
+				}
+			} else if (diff < 0) {
+				// 가득 참
+				if (fullPolicy == FullPolicy.DROP) {
+					dropped.incrementAndGet();
+					return;
+				}
+
+				LockSupport.unpark(writer);
+				LockSupport.parkNanos(10_000);
+
+				if (running == false) {
+					writeDirect(line);
+					return;
+				}
+			}
+			// diff > 0: 다른 생산자가 먼저 선점, 다시 시도
+		}
+	}
+
+	private String poll() {
+		int index = (int) (head & mask);
+
+		if (sequences.get(index) != head + 1) {
+			return null;
+		}
+
+		String line = slots[index];
+		slots[index] = null;
+		sequences.set(index, head + capacity);
+		head++;
+
+		return line;
+	}
+
+	private void drainLoop() {
+		StringBuilder batch = new StringBuilder(8192);
+		long reportedDrops = 0;
+
+		while (running == true) {
+			int count = drainTo(batch);
+			long drops = dropped.get();
+
+			if (drops != reportedDrops) {
+				batch.append("[MyPrint] dropped ").append(drops - reportedDrops).append(" messages").append(System.lineSeparator());
+				reportedDrops = drops;
+				count++;
+			}
+
+			if (count > 0) {
+				flush(batch);
+				continue;
+			}
+
+			waiting = true;
+
+			// waiting 설정 직전에 들어온 로그를 놓치지 않도록 다시 확인
+			if (sequences.get((int) (head & mask)) != head + 1) {
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+
+			waiting = false;
+		}
+	}
+
+	private int drainTo(StringBuilder batch) {
+		int count = 0;
+		String line;
+
+		while (count < MAX_BATCH && (line = poll()) != null) {
+			batch.append(line).append(System.lineSeparator());
+			count++;
+		}
+
+		return count;
+	}
+
+	private void flush(StringBuilder batch) {
+		try {
+			out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
+
+		batch.setLength(0);
+	}
+
+	private void shutdown() {
+		running = false;
+		LockSupport.unpark(writer);
+
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(2));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		drainRemaining();
+	}
+
+	/*
+	 * writer 종료 후 남은 로그를 호출한 스레드에서 씀 (shutdown과, 종료 중에 발행한 생산자가 호출).
+	 * 락으로 소비자는 항상 하나만. writer가 아직 살아 있으면 writer가 소비자이므로 아무것도 하지 않음.
+	 * 앞 슬롯이 아직 발행 전이면 거기서 멈추지만, 그 슬롯의 생산자도 발행 후 여기를 호출하므로 유실되지 않음.
+	 */
+	private synchronized void drainRemaining() {
+		if (writer.isAlive() == true) {
+			return;
+		}
+
+		StringBuilder batch = new StringBuilder();
+
+		while (drainTo(batch) > 0) {
+			flush(batch);
+		}
+	}
+
+	private synchronized void writeDirect(String line) {
+		try {
+			out.write((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+
+	private static OutputStream openOutput(String path) {
+		if (path != null && path.isEmpty() == false) {
+			try {
+				return new BufferedOutputStream(new FileOutputStream(path, true), 64 * 1024);
+			} catch (IOException e) {
+				System.err.println(e.getMessage());
+			}
+		}
+
+		return System.out;
+	}
+}
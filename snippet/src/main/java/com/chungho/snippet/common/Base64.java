@@ -1,8 +1,35 @@
 package com.chungho.snippet.common;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class Base64 {
+
+	/*
+	 * BASIC: 표준 알파벳 (+ /)
+	 * URL  : URL/파일명 안전 알파벳 (- _)
+	 * MIME : 표준 알파벳 + 76자마다 CRLF, 디코딩 시 알파벳 외 문자 무시
+	 */
+	public enum Mode {
+		BASIC,
+		URL,
+		MIME,
+	}
+
+	private static final int MIME_LINE_LENGTH = 76;
+	private static final byte[] MIME_LINE_SEPARATOR = { '\r', '\n' };
+
+	// 다이렉트 ByteBuffer 처리 시 사용하는 임시 청크 크기 (3과 4의 배수)
+	private static final int DIRECT_CHUNK_SIZE = 3 * 4 * 1024;
+
+	private static final byte[] BASIC_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] URL_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+	private static final int[] BASIC_DECODE_TABLE = decodeTable(BASIC_ALPHABET);
+	private static final int[] URL_DECODE_TABLE = decodeTable(URL_ALPHABET);
+
 	public static String encoding(String normalText) {
 		byte[] arr = normalText.getBytes(StandardCharsets.UTF_8);
 		String encoded = java.util.Base64.getEncoder().encodeToString(arr);
@@ -23,9 +50,364 @@ public class Base64 {
 		return decoded;
 	}
 
+	/**
+	 * Base64 디코딩이 아니라 UTF-8 문자열 변환임. Base64 인코딩이 필요하면 encoding(byte[])을 사용.
+	 */
+	@Deprecated
 	public static String decoding(byte[] bytes) {
 		String decoded = new String(bytes, StandardCharsets.UTF_8);
 
 		return decoded;
 	}
+
+	// ***** byte[] / ByteBuffer 입출력 API (중간 String 할당 없음) *****
+
+	public static int encodedLength(int srcLength, Mode mode) {
+		int length = ((srcLength + 2) / 3) * 4;
+
+		if (mode == Mode.MIME && length > 0) {
+			length += ((length - 1) / MIME_LINE_LENGTH) * MIME_LINE_SEPARATOR.length;
+		}
+
+		return length;
+	}
+
+	/**
+	 * 디코딩 결과의 최대 길이 (패딩 / MIME 줄바꿈이 있으면 실제 길이는 더 짧음).
+	 */
+	public static int maxDecodedLength(int srcLength) {
+		return ((srcLength + 3) / 4) * 3;
+	}
+
+	/**
+	 * src[srcOffset, srcOffset + length) 를 디코딩한 결과의 정확한 길이 (MIME 모드는 알파벳 외 문자를 세지 않음).
+	 */
+	public static int decodedLength(byte[] src, int srcOffset, int length, Mode mode) {
+		int end = srcOffset + length;
+		int chars = 0;
+
+		if (mode == Mode.MIME) {
+			for (int i = srcOffset; i < end && src[i] != '='; i++) {
+				if (BASIC_DECODE_TABLE[src[i] & 0xff] >= 0) {
+					chars++;
+				}
+			}
+		} else {
+			while (end > srcOffset && src[end - 1] == '=') {
+				end--;
+			}
+
+			chars = end - srcOffset;
+		}
+
+		return (chars / 4) * 3 + Math.max(0, chars % 4 - 1);
+	}
+
+	public static byte[] encode(byte[] src, Mode mode) {
+		byte[] dst = new byte[encodedLength(src.length, mode)];
+		encode(src, 0, src.length, dst, 0, mode);
+
+		return dst;
+	}
+
+	public static byte[] decode(byte[] src, Mode mode) {
+		byte[] dst = new byte[maxDecodedLength(src.length)];
+		int written = decode(src, 0, src.length, dst, 0, mode);
+
+		return written == dst.length ? dst : Arrays.copyOf(dst, written);
+	}
+
+	/**
+	 * src[srcOffset, srcOffset + length) 를 인코딩해서 dst[dstOffset] 부터 씀.
+	 *
+	 * @return dst에 쓴 바이트 수
+	 */
+	public static int encode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, Mode mode) {
+		int needed = encodedLength(length, mode);
+
+		if (dst.length - dstOffset < needed) {
+			throw new IllegalArgumentException("Output buffer too small: need " + needed + " bytes");
+		}
+
+		byte[] alphabet = mode == Mode.URL ? URL_ALPHABET : BASIC_ALPHABET;
+		boolean mime = mode == Mode.MIME;
+		int sp = srcOffset;
+		int end = srcOffset + length;
+		int fullEnd = srcOffset + (length / 3) * 3;
+		int dp = dstOffset;
+		int lineLength = 0;
+
+		while (sp < fullEnd) {
+			if (mime == true && lineLength == MIME_LINE_LENGTH) {
+				dst[dp++] = '\r';
+				dst[dp++] = '\n';
+				lineLength = 0;
+			}
+
+			int bits = (src[sp++] & 0xff) << 16 | (src[sp++] & 0xff) << 8 | (src[sp++] & 0xff);
+
+			dst[dp++] = alphabet[(bits >>> 18) & 0x3f];
+			dst[dp++] = alphabet[(bits >>> 12) & 0x3f];
+			dst[dp++] = alphabet[(bits >>> 6) & 0x3f];
+			dst[dp++] = alphabet[bits & 0x3f];
+			lineLength += 4;
+		}
+
+		if (sp < end) {
+			if (mime == true && lineLength == MIME_LINE_LENGTH) {
+				dst[dp++] = '\r';
+				dst[dp++] = '\n';
+			}
+
+			int b0 = src[sp++] & 0xff;
+			dst[dp++] = alphabet[b0 >>> 2];
+
+			if (sp == end) {
+				dst[dp++] = alphabet[(b0 << 4) & 0x3f];
+				dst[dp++] = '=';
+			} else {
+				int b1 = src[sp] & 0xff;
+				dst[dp++] = alphabet[(b0 << 4) & 0x3f | (b1 >>> 4)];
+				dst[dp++] = alphabet[(b1 << 2) & 0x3f];
+			}
+
+			dst[dp++] = '=';
+		}
+
+		return dp - dstOffset;
+	}
+
+	/**
+	 * src[srcOffset, srcOffset + length) 를 디코딩해서 dst[dstOffset] 부터 씀.
+	 *
+	 * @return dst에 쓴 바이트 수
+	 * @throws IllegalArgumentException 올바른 Base64가 아니거나 (MIME 모드는 알파벳 외 문자를 무시) dst가 작은 경우
+	 */
+	public static int decode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, Mode mode) {
+		// 디코딩 결과 길이를 정확히 알 수 없는 경우(패딩/MIME 줄바꿈)만 실제 길이를 계산
+		if (dst.length - dstOffset < maxDecodedLength(length)) {
+			int needed = decodedLength(src, srcOffset, length, mode);
+
+			if (dst.length - dstOffset < needed) {
+				throw new IllegalArgumentException("Output buffer too small: need " + needed + " bytes");
+			}
+		}
+
+		int[] table = mode == Mode.URL ? URL_DECODE_TABLE : BASIC_DECODE_TABLE;
+		boolean mime = mode == Mode.MIME;
+		int sp = srcOffset;
+		int end = srcOffset + length;
+		int dp = dstOffset;
+
+		// 빠른 경로: 줄바꿈/패딩이 없는 4글자 묶음
+		if (mime == false) {
+			while (sp + 4 <= end) {
+				int c0 = table[src[sp] & 0xff];
+				int c1 = table[src[sp + 1] & 0xff];
+				int c2 = table[src[sp + 2] & 0xff];
+				int c3 = table[src[sp + 3] & 0xff];
+
+				if ((c0 | c1 | c2 | c3) < 0) {
+					break;
+				}
+
+				int bits = c0 << 18 | c1 << 12 | c2 << 6 | c3;
+
+				dst[dp++] = (byte) (bits >>> 16);
+				dst[dp++] = (byte) (bits >>> 8);
+				dst[dp++] = (byte) bits;
+				sp += 4;
+			}
+		}
+
+		// 느린 경로: 마지막 묶음, 패딩, MIME 줄바꿈 처리 (패딩 검증은 java.util.Base64와 같음)
+		int buffer = 0;
+		int bitCount = 0;
+		// 지금 묶음(4글자)에서 읽은 알파벳 글자 수
+		int unitLength = 0;
+
+		while (sp < end) {
+			int c = src[sp++] & 0xff;
+
+			if (c == '=') {
+				// 패딩은 "xx==" 또는 "xxx=" 만 허용 (묶음 처음에 오거나, 2글자 뒤에 '='가 하나뿐이면 오류)
+				if (unitLength == 0 || (unitLength == 2 && (sp == end || src[sp++] != '='))) {
+					throw new IllegalArgumentException("Input byte array has wrong 4-byte ending unit");
+				}
+
+				break;
+			}
+
+			int value = table[c];
+
+			if (value < 0) {
+				if (mime == true) {
+					continue;
+				}
+
+				throw new IllegalArgumentException("Illegal base64 character " + Integer.toHexString(c));
+			}
+
+			buffer = (buffer << 6) | value;
+			bitCount += 6;
+			unitLength = (unitLength + 1) & 3;
+
+			if (bitCount >= 8) {
+				bitCount -= 8;
+				dst[dp++] = (byte) (buffer >>> bitCount);
+				buffer &= (1 << bitCount) - 1;
+			}
+		}
+
+		if (unitLength == 1) {
+			throw new IllegalArgumentException("Last unit does not have enough valid bits");
+		}
+
+		// 패딩 뒤에는 아무것도 올 수 없음 (MIME은 알파벳 외 문자만 무시)
+		while (sp < end) {
+			int c = src[sp++] & 0xff;
+
+			if (mime == true && table[c] < 0) {
+				continue;
+			}
+
+			throw new IllegalArgumentException("Input byte array has incorrect ending byte at " + (sp - 1 - srcOffset));
+		}
+
+		return dp - dstOffset;
+	}
+
+	/**
+	 * src의 남은 바이트를 인코딩해서 dst에 씀. 두 버퍼의 position이 처리한 만큼 이동함.
+	 *
+	 * @return dst에 쓴 바이트 수
+	 */
+	public static int encode(ByteBuffer src, ByteBuffer dst, Mode mode) {
+		int length = src.remaining();
+		int needed = encodedLength(length, mode);
+
+		if (dst.remaining() < needed) {
+			throw new IllegalArgumentException("Output buffer too small: need " + needed + " bytes");
+		}
+
+		if (src.hasArray() == true && dst.hasArray() == true) {
+			int written = encode(src.array(), src.arrayOffset() + src.position(), length,
+					dst.array(), dst.arrayOffset() + dst.position(), mode);
+
+			src.position(src.position() + length);
+			dst.position(dst.position() + written);
+
+			return written;
+		}
+
+		// 다이렉트 버퍼: 3바이트 단위 청크로 나눠 처리 (MIME은 줄 길이 유지를 위해 한 번에 처리)
+		if (mode == Mode.MIME) {
+			byte[] in = new byte[length];
+			src.get(in);
+			byte[] out = encode(in, mode);
+			dst.put(out);
+
+			return out.length;
+		}
+
+		byte[] in = new byte[Math.min(length, DIRECT_CHUNK_SIZE)];
+		byte[] out = new byte[encodedLength(in.length, mode)];
+		int total = 0;
+
+		while (src.hasRemaining() == true) {
+			int chunk = Math.min(src.remaining(), in.length);
+			src.get(in, 0, chunk);
+
+			int written = encode(in, 0, chunk, out, 0, mode);
+			dst.put(out, 0, written);
+			total += written;
+		}
+
+		return total;
+	}
+
+	/**
+	 * src의 남은 바이트를 디코딩해서 dst에 씀. 두 버퍼의 position이 처리한 만큼 이동함.
+	 *
+	 * @return dst에 쓴 바이트 수
+	 */
+	public static int decode(ByteBuffer src, ByteBuffer dst, Mode mode) {
+		int length = src.remaining();
+		byte[] in;
+		int inOffset;
+
+		if (src.hasArray() == true) {
+			in = src.array();
+			inOffset = src.arrayOffset() + src.position();
+		} else {
+			in = new byte[length];
+			src.duplicate().get(in);
+			inOffset = 0;
+		}
+
+		// 백킹 배열 길이가 아니라 dst의 limit 기준으로 검사 (실패하면 두 버퍼의 position은 그대로)
+		int needed = decodedLength(in, inOffset, length, mode);
+
+		if (dst.remaining() < needed) {
+			throw new IllegalArgumentException("Output buffer too small: need " + needed + " bytes");
+		}
+
+		int written;
+
+		if (dst.hasArray() == true) {
+			written = decode(in, inOffset, length, dst.array(), dst.arrayOffset() + dst.position(), mode);
+			dst.position(dst.position() + written);
+		} else {
+			byte[] out = new byte[needed];
+			written = decode(in, inOffset, length, out, 0, mode);
+			dst.put(out, 0, written);
+		}
+
+		src.position(src.position() + length);
+
+		return written;
+	}
+
+	// ***** 스트리밍 API *****
+
+	/**
+	 * out으로 쓰는 바이트를 Base64로 인코딩하는 스트림. 닫을 때 패딩이 기록되며 out도 함께 닫힘.
+	 */
+	public static OutputStream wrap(OutputStream out, Mode mode) {
+		return encoder(mode).wrap(out);
+	}
+
+	/**
+	 * in에서 읽는 Base64를 디코딩하는 스트림.
+	 */
+	public static InputStream wrap(InputStream in, Mode mode) {
+		return decoder(mode).wrap(in);
+	}
+
+	private static java.util.Base64.Encoder encoder(Mode mode) {
+		return switch (mode) {
+			case URL -> java.util.Base64.getUrlEncoder();
+			case MIME -> java.util.Base64.getMimeEncoder();
+			default -> java.util.Base64.getEncoder();
+		};
+	}
+
+	private static java.util.Base64.Decoder decoder(Mode mode) {
+		return switch (mode) {
+			case URL -> java.util.Base64.getUrlDecoder();
+			case MIME -> java.util.Base64.getMimeDecoder();
+			default -> java.util.Base64.getDecoder();
+		};
+	}
+
+	private static int[] decodeTable(byte[] alphabet) {
+		int[] table = new int[256];
+		Arrays.fill(table, -1);
+
+		for (int i = 0; i < alphabet.length; i++) {
+			table[alphabet[i]] = i;
+		}
+
+		return table;
+	}
 }
@@ -0,0 +1,273 @@
+package com.chungho.snippet.common;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * 여러 행을 한 번에 넣는 upsert (MySQL / PostgreSQL 공용).
+ * - 컬럼은 행 클래스의 필드 (쿼리 결과 매핑과 같은 필드 메타데이터, 클래스별 캐시)
+ * - MySQL     : INSERT INTO t (a, b) VALUES (?, ?), (?, ?) ... ON DUPLICATE KEY UPDATE b = VALUES(b)
+ * - PostgreSQL: INSERT INTO t (a, b) VALUES (?, ?), (?, ?) ... ON CONFLICT (a) DO UPDATE SET b = EXCLUDED.b
+ * - 한 문장이 패킷 크기 한도(max_allowed_packet 등)와 바인드 파라미터 수 한도를 넘지 않도록 여러 문장으로 나눔
+ * - 문장마다 호출자의 StatementTracker를 거치므로 호출자의 타임아웃 / cancel()이 실행 중인 upsert에도 적용됨
+ */
+public final class BulkUpsert {
+
+	public enum Dialect {
+		MYSQL,
+		POSTGRESQL,
+	}
+
+	// 한 문장의 최대 바인드 파라미터 수 (MySQL 65535, PostgreSQL 드라이버 32767)
+	private static final int MYSQL_MAX_PARAMETERS = 65535;
+	private static final int POSTGRESQL_MAX_PARAMETERS = 32767;
+	// 값 크기를 알 수 없는 타입의 예상 크기
+	private static final int DEFAULT_VALUE_BYTES = 32;
+
+	// 클래스별 매핑 필드 (static / synthetic 제외, 접근 가능하게 설정해서 캐시)
+	private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+		@Override
+		protected Field[] computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+
+			for (Field field : type.getDeclaredFields()) {
+				if (field.isSynthetic() == true || Modifier.isStatic(field.getModifiers()) == true) {
+					continue;
+				}
+
+				field.setAccessible(true);
+				fields.add(field);
+			}
+
+			return fields.toArray(new Field[0]);
+		}
+	};
+
+	/*
+	 * 실행 직전의 Statement를 받아 타임아웃 설정 / 취소 대상 등록 (MySQL / PostgreSQL의 track).
+	 * 이미 취소된 경우 SQLException을 던지면 남은 문장은 실행하지 않음.
+	 */
+	@FunctionalInterface
+	public interface StatementTracker {
+		void track(Statement stmt) throws SQLException;
+	}
+
+	private BulkUpsert() {
+	}
+
+	/*
+	 * 행 매핑에 쓰는 필드 목록 (리플렉션 조회는 클래스당 한 번).
+	 */
+	public static Field[] fieldsOf(Class<?> type) {
+		return FIELDS.get(type);
+	}
+
+	/**
+	 * rows를 maxStatementBytes 이하 크기의 multi-row upsert 문장들로 나눠 실행.
+	 *
+	 * @param keyColumns 충돌 판단 컬럼 (PostgreSQL ON CONFLICT 대상이라 PostgreSQL은 필수, 두 DB 모두 UPDATE 대상에서 제외)
+	 * @param tracker    문장마다 실행 전에 호출 (타임아웃 / 취소 등록)
+	 * @return 실행한 문장 수
+	 */
+	public static int execute(Connection connection, Dialect dialect, String table, List<?> rows, List<String> keyColumns, long maxStatementBytes, StatementTracker tracker) throws SQLException, IllegalAccessException {
+		if (rows == null || rows.isEmpty() == true) {
+			return 0;
+		}
+
+		if (keyColumns == null) {
+			keyColumns = List.of();
+		}
+
+		if (dialect == Dialect.POSTGRESQL && keyColumns.isEmpty() == true) {
+			// ON CONFLICT () 는 문법 오류
+			throw new IllegalArgumentException("PostgreSQL upsert needs at least one key column: " + table);
+		}
+
+		Field[] fields = fieldsOf(rows.get(0).getClass());
+
+		if (fields.length == 0) {
+			throw new IllegalArgumentException("No columns in " + rows.get(0).getClass().getName());
+		}
+
+		int maxParameters = dialect == Dialect.MYSQL ? MYSQL_MAX_PARAMETERS : POSTGRESQL_MAX_PARAMETERS;
+		int maxRowsByParameters = Math.max(1, maxParameters / fields.length);
+
+		String head = buildHead(dialect, table, fields);
+		String tail = buildTail(dialect, fields, keyColumns);
+		int rowPlaceholderBytes = fields.length * 3 + 4;
+
+		int statements = 0;
+		int start = 0;
+
+		while (start < rows.size()) {
+			// 패킷 한도 / 파라미터 한도 안에서 넣을 수 있는 만큼 행을 묶음
+			long bytes = head.length() + tail.length();
+			int end = start;
+
+			while (end < rows.size() && end - start < maxRowsByParameters) {
+				long rowBytes = rowPlaceholderBytes + estimateRowBytes(rows.get(end), fields);
+
+				if (end > start && bytes + rowBytes > maxStatementBytes) {
+					break;
+				}
+
+				bytes += rowBytes;
+				end++;
+			}
+
+			executeBatch(connection, head, tail, fields, rows.subList(start, end), tracker);
+			statements++;
+			start = end;
+		}
+
+		return statements;
+	}
+
+	private static void executeBatch(Connection connection, String head, String tail, Field[] fields, List<?> batch, StatementTracker tracker) throws SQLException, IllegalAccessException {
+		try (PreparedStatement stmt = connection.prepareStatement(buildStatement(head, tail, fields.length, batch.size()))) {
+			tracker.track(stmt);
+
+			int index = 1;
+
+			for (Object row : batch) {
+				for (Field field : fields) {
+					stmt.setObject(index++, toParameter(field.get(row)));
+				}
+			}
+
+			stmt.executeUpdate();
+		}
+	}
+
+	static String buildStatement(String head, String tail, int columnCount, int rowCount) {
+		StringBuilder sql = new StringBuilder(head.length() + tail.length() + rowCount * (columnCount * 3 + 4));
+		sql.append(head);
+
+		for (int row = 0; row < rowCount; row++) {
+			sql.append(row == 0 ? "(" : ", (");
+
+			for (int i = 0; i < columnCount; i++) {
+				sql.append(i == 0 ? "?" : ", ?");
+			}
+
+			sql.append(')');
+		}
+
+		return sql.append(tail).toString();
+	}
+
+	static String buildHead(Dialect dialect, String table, Field[] fields) {
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+
+			sql.append(quote(dialect, fields[i].getName()));
+		}
+
+		return sql.append(") VALUES ").toString();
+	}
+
+	static String buildTail(Dialect dialect, Field[] fields, List<String> keyColumns) {
+		Set<String> keys = new HashSet<>();
+
+		for (String key : keyColumns) {
+			keys.add(key.toLowerCase());
+		}
+
+		List<String> updateColumns = new ArrayList<>();
+
+		for (Field field : fields) {
+			if (keys.contains(field.getName().toLowerCase()) == false) {
+				updateColumns.add(quote(dialect, field.getName()));
+			}
+		}
+
+		StringBuilder sql = new StringBuilder();
+
+		if (dialect == Dialect.MYSQL) {
+			sql.append(" ON DUPLICATE KEY UPDATE ");
+
+			if (updateColumns.isEmpty() == true) {
+				// 갱신할 컬럼이 없으면 아무것도 바꾸지 않는 대입으로 중복 에러만 막음
+				String key = quote(dialect, fields[0].getName());
+				return sql.append(key).append(" = ").append(key).toString();
+			}
+
+			for (int i = 0; i < updateColumns.size(); i++) {
+				String column = updateColumns.get(i);
+				sql.append(i == 0 ? "" : ", ").append(column).append(" = VALUES(").append(column).append(')');
+			}
+		} else {
+			sql.append(" ON CONFLICT (");
+
+			for (int i = 0; i < keyColumns.size(); i++) {
+				sql.append(i == 0 ? "" : ", ").append(quote(dialect, keyColumns.get(i)));
+			}
+
+			if (updateColumns.isEmpty() == true) {
+				return sql.append(") DO NOTHING").toString();
+			}
+
+			sql.append(") DO UPDATE SET ");
+
+			for (int i = 0; i < updateColumns.size(); i++) {
+				String column = updateColumns.get(i);
+				sql.append(i == 0 ? "" : ", ").append(column).append(" = EXCLUDED.").append(column);
+			}
+		}
+
+		return sql.toString();
+	}
+
+	// PostgreSQL은 따옴표로 감싸면 대소문자를 구분하므로 소문자로 (따옴표 없는 식별자와 같게) 맞춤
+	private static String quote(Dialect dialect, String name) {
+		if (dialect == Dialect.MYSQL) {
+			return "`" + name.replace("`", "``") + "`";
+		}
+
+		return "\"" + name.toLowerCase().replace("\"", "\"\"") + "\"";
+	}
+
+	private static Object toParameter(Object value) {
+		if (value instanceof Enum<?> enumValue) {
+			return enumValue.name();
+		}
+
+		return value;
+	}
+
+	// 전송될 값 크기 추정 (문자열은 UTF-8 바이트 수 + 이스케이프 여유)
+	private static long estimateRowBytes(Object row, Field[] fields) throws IllegalAccessException {
+		long bytes = 0;
+
+		for (Field field : fields) {
+			Object value = field.get(row);
+
+			if (value == null) {
+				bytes += 4;
+			} else if (value instanceof CharSequence text) {
+				bytes += text.toString().getBytes(StandardCharsets.UTF_8).length * 2L + 2;
+			} else if (value instanceof byte[] data) {
+				bytes += data.length * 2L + 3;
+			} else if (value instanceof Number || value instanceof Boolean) {
+				bytes += 24;
+			} else {
+				bytes += DEFAULT_VALUE_BYTES;
+			}
+		}
+
+		return bytes;
+	}
+}
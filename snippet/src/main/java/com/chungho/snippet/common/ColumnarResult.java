@@ -0,0 +1,425 @@
+package com.chungho.snippet.common;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 컬럼 단위 쿼리 결과 (집계 / ID 목록처럼 행이 많고 숫자 위주인 쿼리용).
+ * - 행마다 객체를 만들지 않고 컬럼 타입별 원시 배열(long / int / double)에 바로 담음 (getLong / getInt / getDouble 사용, 박싱 없음)
+ * - 문자열은 사전 인코딩 (같은 값은 한 번만 저장하고 행에는 int 코드만)
+ * - 배열은 고정 크기 청크 단위로 늘려서 복사 없이 증가 (첫 청크만 작게 시작해서 두 배씩 늘림, 행이 적은 결과에 큰 배열을 잡지 않도록)
+ * - NULL은 청크별 비트맵으로 표시 (NULL인 행의 값은 0 / null)
+ *
+ * JDBC 타입 → 컬럼
+ *  BIGINT / INTEGER UNSIGNED                → LongColumn
+ *  BIGINT UNSIGNED                          → StringColumn (long 범위를 넘을 수 있음)
+ *  INTEGER / SMALLINT / TINYINT / BIT / BOOLEAN → IntColumn
+ *  DOUBLE / FLOAT / REAL / DECIMAL / NUMERIC → DoubleColumn (DECIMAL은 double로 변환되므로 정밀도 주의)
+ *  DATE / TIME / TIMESTAMP                  → LongColumn (Unix time 초, mapResultSet과 동일)
+ *  그 외                                     → StringColumn
+ */
+public class ColumnarResult {
+
+	private static final int CHUNK_SHIFT = 14;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int INITIAL_CHUNK_SIZE = 16;
+
+	private final Column[] columns;
+	private final Map<String, Integer> columnIndexes = new HashMap<>();
+	private int rowCount;
+
+	private ColumnarResult(Column[] columns) {
+		this.columns = columns;
+
+		for (int i = 0; i < columns.length; i++) {
+			columnIndexes.putIfAbsent(columns[i].name.toLowerCase(), i);
+		}
+	}
+
+	public static ColumnarResult empty() {
+		return new ColumnarResult(new Column[0]);
+	}
+
+	/*
+	 * ResultSet 전체를 읽어서 컬럼 결과로 만듦.
+	 */
+	public static ColumnarResult read(ResultSet rs) throws SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		int columnCount = meta.getColumnCount();
+		Column[] columns = new Column[columnCount];
+
+		for (int i = 0; i < columnCount; i++) {
+			columns[i] = createColumn(meta.getColumnLabel(i + 1), meta.getColumnType(i + 1), meta.isSigned(i + 1));
+		}
+
+		ColumnarResult result = new ColumnarResult(columns);
+
+		while (rs.next() == true) {
+			for (int i = 0; i < columnCount; i++) {
+				columns[i].read(rs, i + 1);
+			}
+
+			result.rowCount++;
+		}
+
+		return result;
+	}
+
+	/*
+	 * MySQL Connector/J는 INT UNSIGNED를 INTEGER, BIGINT UNSIGNED를 BIGINT로 알려주므로
+	 * getInt / getLong 범위를 넘는 값이 나올 수 있는 컬럼은 한 단계 넓은 컬럼으로 읽음.
+	 */
+	private static Column createColumn(String name, int sqlType, boolean signed) {
+		switch (sqlType) {
+			case Types.BIGINT:
+				return signed == true ? new LongColumn(name, false) : new StringColumn(name);
+			case Types.INTEGER:
+				return signed == true ? new IntColumn(name) : new LongColumn(name, false);
+			case Types.SMALLINT:
+			case Types.TINYINT:
+			case Types.BIT:
+			case Types.BOOLEAN:
+				return new IntColumn(name);
+			case Types.DOUBLE:
+			case Types.FLOAT:
+			case Types.REAL:
+			case Types.DECIMAL:
+			case Types.NUMERIC:
+				return new DoubleColumn(name);
+			case Types.DATE:
+			case Types.TIME:
+			case Types.TIMESTAMP:
+			case Types.TIMESTAMP_WITH_TIMEZONE:
+				return new LongColumn(name, true);
+			default:
+				return new StringColumn(name);
+		}
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	public Column getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * @return 대소문자 구분 없이 찾은 컬럼, 없으면 null
+	 */
+	public Column getColumn(String name) {
+		Integer index = columnIndexes.get(name.toLowerCase());
+
+		return index == null ? null : columns[index];
+	}
+
+	public LongColumn getLongColumn(String name) {
+		return (LongColumn) getColumn(name);
+	}
+
+	public IntColumn getIntColumn(String name) {
+		return (IntColumn) getColumn(name);
+	}
+
+	public DoubleColumn getDoubleColumn(String name) {
+		return (DoubleColumn) getColumn(name);
+	}
+
+	public StringColumn getStringColumn(String name) {
+		return (StringColumn) getColumn(name);
+	}
+
+	/*
+	 * 청크에 새로 잡을 길이. 첫 청크는 INITIAL_CHUNK_SIZE부터 CHUNK_SIZE까지 두 배씩 늘리고, 그 뒤 청크는 처음부터 CHUNK_SIZE.
+	 */
+	private static int chunkLength(int chunk, int currentLength) {
+		if (chunk > 0) {
+			return CHUNK_SIZE;
+		}
+
+		return currentLength == 0 ? INITIAL_CHUNK_SIZE : Math.min(CHUNK_SIZE, currentLength * 2);
+	}
+
+	// ***** 컬럼 *****
+
+	public abstract static class Column {
+		public final String name;
+		// 청크별 NULL 비트맵 (NULL이 하나도 없는 청크는 null)
+		private long[][] nullChunks = new long[4][];
+		protected int size;
+
+		Column(String name) {
+			this.name = name;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public boolean isNull(int row) {
+			checkRow(row);
+
+			int chunk = row >>> CHUNK_SHIFT;
+			long[] bits = chunk < nullChunks.length ? nullChunks[chunk] : null;
+			int offset = row & CHUNK_MASK;
+
+			return bits != null && (bits[offset >>> 6] & (1L << offset)) != 0;
+		}
+
+		protected void markNull(int row) {
+			int chunk = row >>> CHUNK_SHIFT;
+
+			if (chunk >= nullChunks.length) {
+				nullChunks = Arrays.copyOf(nullChunks, Math.max(chunk + 1, nullChunks.length * 2));
+			}
+
+			if (nullChunks[chunk] == null) {
+				nullChunks[chunk] = new long[CHUNK_SIZE / 64];
+			}
+
+			int offset = row & CHUNK_MASK;
+			nullChunks[chunk][offset >>> 6] |= 1L << offset;
+		}
+
+		protected void checkRow(int row) {
+			if (row < 0 || row >= size) {
+				throw new IndexOutOfBoundsException("row " + row + " of " + size);
+			}
+		}
+
+		abstract void read(ResultSet rs, int columnIndex) throws SQLException;
+	}
+
+	public static class LongColumn extends Column {
+		private final boolean isTime;
+		private long[][] chunks = new long[4][];
+
+		LongColumn(String name, boolean isTime) {
+			super(name);
+			this.isTime = isTime;
+		}
+
+		public long get(int row) {
+			checkRow(row);
+
+			return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+		}
+
+		public long[] toArray() {
+			long[] array = new long[size];
+
+			for (int start = 0, chunk = 0; start < size; start += CHUNK_SIZE, chunk++) {
+				System.arraycopy(chunks[chunk], 0, array, start, Math.min(CHUNK_SIZE, size - start));
+			}
+
+			return array;
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex) throws SQLException {
+			long value;
+
+			if (isTime == true) {
+				Timestamp timestamp = rs.getTimestamp(columnIndex);
+				value = timestamp == null ? 0 : timestamp.toInstant().getEpochSecond();
+			} else {
+				value = rs.getLong(columnIndex);
+			}
+
+			if (rs.wasNull() == true) {
+				markNull(size);
+			}
+
+			add(value);
+		}
+
+		private void add(long value) {
+			int chunk = size >>> CHUNK_SHIFT;
+			int offset = size & CHUNK_MASK;
+
+			if (chunk >= chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			}
+
+			if (chunks[chunk] == null) {
+				chunks[chunk] = new long[chunkLength(chunk, 0)];
+			} else if (offset == chunks[chunk].length) {
+				chunks[chunk] = Arrays.copyOf(chunks[chunk], chunkLength(chunk, offset));
+			}
+
+			chunks[chunk][offset] = value;
+			size++;
+		}
+	}
+
+	public static class IntColumn extends Column {
+		private int[][] chunks = new int[4][];
+
+		IntColumn(String name) {
+			super(name);
+		}
+
+		public int get(int row) {
+			checkRow(row);
+
+			return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+		}
+
+		public int[] toArray() {
+			int[] array = new int[size];
+
+			for (int start = 0, chunk = 0; start < size; start += CHUNK_SIZE, chunk++) {
+				System.arraycopy(chunks[chunk], 0, array, start, Math.min(CHUNK_SIZE, size - start));
+			}
+
+			return array;
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex) throws SQLException {
+			int value = rs.getInt(columnIndex);
+
+			if (rs.wasNull() == true) {
+				markNull(size);
+			}
+
+			add(value);
+		}
+
+		void add(int value) {
+			int chunk = size >>> CHUNK_SHIFT;
+			int offset = size & CHUNK_MASK;
+
+			if (chunk >= chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			}
+
+			if (chunks[chunk] == null) {
+				chunks[chunk] = new int[chunkLength(chunk, 0)];
+			} else if (offset == chunks[chunk].length) {
+				chunks[chunk] = Arrays.copyOf(chunks[chunk], chunkLength(chunk, offset));
+			}
+
+			chunks[chunk][offset] = value;
+			size++;
+		}
+	}
+
+	public static class DoubleColumn extends Column {
+		private double[][] chunks = new double[4][];
+
+		DoubleColumn(String name) {
+			super(name);
+		}
+
+		public double get(int row) {
+			checkRow(row);
+
+			return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+		}
+
+		public double[] toArray() {
+			double[] array = new double[size];
+
+			for (int start = 0, chunk = 0; start < size; start += CHUNK_SIZE, chunk++) {
+				System.arraycopy(chunks[chunk], 0, array, start, Math.min(CHUNK_SIZE, size - start));
+			}
+
+			return array;
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex) throws SQLException {
+			double value = rs.getDouble(columnIndex);
+
+			if (rs.wasNull() == true) {
+				markNull(size);
+			}
+
+			int chunk = size >>> CHUNK_SHIFT;
+			int offset = size & CHUNK_MASK;
+
+			if (chunk >= chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			}
+
+			if (chunks[chunk] == null) {
+				chunks[chunk] = new double[chunkLength(chunk, 0)];
+			} else if (offset == chunks[chunk].length) {
+				chunks[chunk] = Arrays.copyOf(chunks[chunk], chunkLength(chunk, offset));
+			}
+
+			chunks[chunk][offset] = value;
+			size++;
+		}
+	}
+
+	public static class StringColumn extends Column {
+		private final List<String> dictionary = new ArrayList<>();
+		private final Map<String, Integer> codes = new HashMap<>();
+		// 행별 사전 코드 (NULL이면 -1)
+		private final IntColumn rowCodes;
+
+		StringColumn(String name) {
+			super(name);
+			this.rowCodes = new IntColumn(name);
+		}
+
+		public String get(int row) {
+			checkRow(row);
+
+			int code = rowCodes.get(row);
+
+			return code < 0 ? null : dictionary.get(code);
+		}
+
+		/**
+		 * @return 행의 사전 코드 (NULL이면 -1). 같은 값끼리 비교 / 그룹핑할 때 문자열 대신 사용.
+		 */
+		public int getCode(int row) {
+			checkRow(row);
+
+			return rowCodes.get(row);
+		}
+
+		public List<String> getDictionary() {
+			return Collections.unmodifiableList(dictionary);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex) throws SQLException {
+			String value = rs.getString(columnIndex);
+
+			if (value == null) {
+				markNull(size);
+				rowCodes.add(-1);
+			} else {
+				Integer code = codes.get(value);
+
+				if (code == null) {
+					code = dictionary.size();
+					dictionary.add(value);
+					codes.put(value, code);
+				}
+
+				rowCodes.add(code);
+			}
+
+			size++;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.chungho.snippet.common;
+
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * 첫 RSA 핸드셰이크 이후 발급하는 세션 ID → (AES 키, IV, 포맷 버전) 캐시.
+ * 같은 클라이언트의 이후 요청은 세션 ID만 보내고 대칭키 복호화만 하면 되므로 RSA 비용이 사라짐.
+ * - 크기 제한 (LRU) + 만료 시간
+ * - useRedis()를 호출하면 Redis에도 저장해서 여러 서버가 세션을 공유 (로컬 miss 시 Redis 조회)
+ *   로컬 복사본은 Redis에 남은 수명(PTTL)까지만 유효하고, CRYPTO_SESSION_RECHECK_MS(기본 5초)마다 Redis를 다시 확인하므로
+ *   다른 서버에서 invalidate()한 세션도 그 시간 안에 모든 서버에서 무효가 됨
+ */
+public class CryptoSessionCache {
+
+	private static final String REDIS_KEY_PREFIX = "crypto:session:";
+	private static final int SESSION_ID_LENGTH = 24;
+
+	// Redis 공유 시 로컬 복사본을 Redis 확인 없이 사용하는 최대 시간 (= 다른 서버의 invalidate가 반영되기까지 걸리는 최대 시간)
+	private static final long REDIS_RECHECK_MILLIS = envLong("CRYPTO_SESSION_RECHECK_MS", 5_000);
+
+	private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+	private final int maxSize;
+	private final long ttlMillis;
+	private final LinkedHashMap<String, Session> sessions;
+
+	private volatile boolean useRedis;
+	private volatile int redisDbNumber;
+
+	public static class Session {
+		public final byte[] aesKey;
+		public final byte[] aesIv;
+		public final int version;
+		final long expireAtMillis;
+		// Redis 공유 시 이 시각이 지나면 Redis에서 다시 확인
+		final long recheckAtMillis;
+
+		Session(byte[] aesKey, byte[] aesIv, int version, long expireAtMillis, long recheckAtMillis) {
+			this.aesKey = aesKey;
+			this.aesIv = aesIv;
+			this.version = version;
+			this.expireAtMillis = expireAtMillis;
+			this.recheckAtMillis = recheckAtMillis;
+		}
+	}
+
+	public CryptoSessionCache(int maxSize, long ttlMillis) {
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlMillis;
+		this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+				return size() > CryptoSessionCache.this.maxSize;
+			}
+		};
+	}
+
+	/*
+	 * Redis 공유 사용 (Redis 풀은 new Redis()로 미리 초기화되어 있어야 함).
+	 */
+	public void useRedis(int dbNumber) {
+		this.redisDbNumber = dbNumber;
+		this.useRedis = true;
+	}
+
+	public String issue(byte[] aesKey, byte[] aesIv, int version) {
+		byte[] idBytes = new byte[SESSION_ID_LENGTH];
+		SECURE_RANDOM.nextBytes(idBytes);
+
+		String sessionId = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(idBytes);
+		long now = System.currentTimeMillis();
+		Session session = new Session(aesKey, aesIv, version, now + ttlMillis, now + Math.min(ttlMillis, REDIS_RECHECK_MILLIS));
+
+		synchronized (sessions) {
+			sessions.put(sessionId, session);
+		}
+
+		if (useRedis == true) {
+			try {
+				Redis.setValue(redisDbNumber, REDIS_KEY_PREFIX + sessionId, toRedisValue(session), ttlMillis / 1000);
+			} catch (Exception e) {
+				MyPrint.printf(e);
+			}
+		}
+
+		return sessionId;
+	}
+
+	/**
+	 * @return 세션이 없거나 만료되었으면 null
+	 */
+	public Session get(String sessionId) {
+		if (sessionId == null || sessionId.isEmpty() == true) {
+			return null;
+		}
+
+		long now = System.currentTimeMillis();
+		Session cached;
+
+		synchronized (sessions) {
+			cached = sessions.get(sessionId);
+
+			if (cached != null && cached.expireAtMillis <= now) {
+				sessions.remove(sessionId);
+				cached = null;
+			}
+		}
+
+		if (useRedis == false || (cached != null && cached.recheckAtMillis > now)) {
+			return cached;
+		}
+
+		try {
+			String key = REDIS_KEY_PREFIX + sessionId;
+			String value = Redis.getValue(redisDbNumber, key);
+			long remainingMillis = value == null ? -2 : Redis.getTtlMillis(redisDbNumber, key);
+
+			// 만료되었거나 다른 서버에서 invalidate된 세션 (-1은 만료 시간이 없는 키)
+			if (value == null || (remainingMillis != -1 && remainingMillis <= 0)) {
+				synchronized (sessions) {
+					sessions.remove(sessionId);
+				}
+
+				return null;
+			}
+
+			// 로컬 만료는 Redis에 남은 수명을 그대로 사용 (조회할 때마다 ttl이 새로 늘어나지 않음)
+			long expireAtMillis = now + (remainingMillis == -1 ? ttlMillis : Math.min(remainingMillis, ttlMillis));
+			Session session = fromRedisValue(value, expireAtMillis, Math.min(expireAtMillis, now + REDIS_RECHECK_MILLIS));
+
+			synchronized (sessions) {
+				sessions.put(sessionId, session);
+			}
+
+			return session;
+		} catch (Exception e) {
+			MyPrint.printf(e);
+
+			// Redis 장애 시에는 로컬 복사본을 원래 만료 시각까지 사용
+			return cached;
+		}
+	}
+
+	public void invalidate(String sessionId) {
+		synchronized (sessions) {
+			sessions.remove(sessionId);
+		}
+
+		if (useRedis == true) {
+			try {
+				Redis.deleteKey(redisDbNumber, REDIS_KEY_PREFIX + sessionId);
+			} catch (Exception e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (sessions) {
+			return sessions.size();
+		}
+	}
+
+	// "버전:키(Base64):IV(Base64)"
+	private static String toRedisValue(Session session) {
+		return session.version + ":" + Base64.encoding(session.aesKey) + ":" + Base64.encoding(session.aesIv);
+	}
+
+	private static Session fromRedisValue(String value, long expireAtMillis, long recheckAtMillis) {
+		String[] parts = value.split(":");
+
+		return new Session(
+				java.util.Base64.getDecoder().decode(parts[1]),
+				java.util.Base64.getDecoder().decode(parts[2]),
+				Integer.parseInt(parts[0]),
+				expireAtMillis,
+				recheckAtMillis
+		);
+	}
+
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isEmpty() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			MyPrint.printf(e.getMessage());
+
+			return defaultValue;
+		}
+	}
+}
@@ -4,59 +4,192 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 public class DynamoDB {
-	private static DynamoDbClient dynamoDbClient;
-	private static DynamoDbEnhancedClient enhancedClient;
+	private static volatile DynamoDbClient dynamoDbClient;
+	private static volatile DynamoDbEnhancedClient enhancedClient;
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final DynamoDBItemCache ITEM_CACHE = new DynamoDBItemCache(10000);
+
+	// 클라이언트 튜닝 값 (환경변수로 덮어쓸 수 있음)
+	private static final long API_CALL_TIMEOUT_MILLIS = envLong("DYNAMODB_API_CALL_TIMEOUT_MS", 3000);
+	private static final long API_CALL_ATTEMPT_TIMEOUT_MILLIS = envLong("DYNAMODB_API_CALL_ATTEMPT_TIMEOUT_MS", 1000);
+	private static final int MAX_RETRIES = (int) envLong("DYNAMODB_MAX_RETRIES", 3);
+	private static final int MAX_CONNECTIONS = (int) envLong("DYNAMODB_MAX_CONNECTIONS", 50);
+	private static final long CONNECTION_TIMEOUT_MILLIS = envLong("DYNAMODB_CONNECTION_TIMEOUT_MS", 2000);
+	private static final long CONNECTION_MAX_IDLE_MILLIS = envLong("DYNAMODB_CONNECTION_MAX_IDLE_MS", 60000);
 
 	public static class BoolRef {
 		public boolean value;
 	}
 
+	// 생성자에서 한 번만 초기화 (스레드 세이프하게)
 	public DynamoDB() {
+		ensureInitialized();
+	}
+
+	/*
+	 * 테이블별 TTL 설정이나 hit rate 확인용 (캐시는 기본 꺼져 있음, 테이블별 TTL을 지정해야 켜짐).
+	 */
+	public static DynamoDBItemCache getItemCache() {
+		return ITEM_CACHE;
+	}
+
+	/*
+	 * 앱 시작 시 BackendInitializer가 다른 백엔드와 병렬로 호출 (클라이언트 생성 + warmUp).
+	 * 클라이언트를 만들지 못하면 IllegalStateException.
+	 */
+	public static void initialize() {
+		warmUp();
+
+		if (dynamoDbClient == null) {
+			throw new IllegalStateException("DynamoDB client initialization failed");
+		}
+	}
+
+	/*
+	 * 데워 둘 테이블(DYNAMODB_WARMUP_TABLES)이 있는지 (없으면 warmUp이 클라이언트만 만들므로 BackendInitializer가 시작 시 미리 초기화하지 않음).
+	 */
+	public static boolean isConfigured() {
+		String tablesEnv = System.getenv("DYNAMODB_WARMUP_TABLES");
+
+		return tablesEnv != null && tablesEnv.isBlank() == false;
+	}
+
+	/*
+	 * 배포 직후 첫 요청이 자격 증명 조회 / 리전 설정 / TLS 핸드셰이크 비용을 내지 않도록
+	 * 앱 시작 시점에 클라이언트를 만들고, 가벼운 DescribeTable 호출로 커넥션 풀을 데워 둔다.
+	 * tableNames가 비어 있으면 환경변수 DYNAMODB_WARMUP_TABLES (콤마 구분)를 사용.
+	 */
+	public static void warmUp(String... tableNames) {
+		ensureInitialized();
+
+		if (dynamoDbClient == null) {
+			return;
+		}
+
+		if (tableNames == null || tableNames.length == 0) {
+			String tablesEnv = System.getenv("DYNAMODB_WARMUP_TABLES");
+
+			if (tablesEnv == null || tablesEnv.isBlank() == true) {
+				return;
+			}
+
+			tableNames = tablesEnv.split(",");
+		}
+
+		for (String tableName : tableNames) {
+			if (tableName.isBlank() == true) {
+				continue;
+			}
+
+			try {
+				dynamoDbClient.describeTable(DescribeTableRequest
+						.builder()
+						.tableName(tableName.trim())
+						.build());
+			} catch (Exception e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	private static void ensureInitialized() {
 		if (dynamoDbClient == null) {
-			init();
+			synchronized (DynamoDB.class) {
+				if (dynamoDbClient == null) {
+					init();
+				}
+			}
 		}
 	}
 
-	private void init() {
+	private static void init() {
 		try {
+			SdkHttpClient httpClient = ApacheHttpClient
+					.builder()
+					.maxConnections(MAX_CONNECTIONS)
+					.connectionTimeout(Duration.ofMillis(CONNECTION_TIMEOUT_MILLIS))
+					.connectionMaxIdleTime(Duration.ofMillis(CONNECTION_MAX_IDLE_MILLIS))
+					.tcpKeepAlive(true)
+					.build();
+
+			ClientOverrideConfiguration overrideConfig = ClientOverrideConfiguration
+					.builder()
+					.apiCallTimeout(Duration.ofMillis(API_CALL_TIMEOUT_MILLIS))
+					.apiCallAttemptTimeout(Duration.ofMillis(API_CALL_ATTEMPT_TIMEOUT_MILLIS))
+					// maxAttempts는 첫 시도를 포함한 횟수
+					.retryStrategy(AwsRetryStrategy
+							.standardRetryStrategy()
+							.toBuilder()
+							.maxAttempts(MAX_RETRIES + 1)
+							.build())
+					.build();
+
+			DynamoDbClient client;
+
 			if ("AccessKeyId".equals("")) {
 				AwsBasicCredentials creds = AwsBasicCredentials.create("AccessKeyId", "Secret");
 
-				dynamoDbClient = DynamoDbClient
+				client = DynamoDbClient
 						.builder()
 						.region(Region.of("Region"))
 						.credentialsProvider(StaticCredentialsProvider.create(creds))
+						.httpClient(httpClient)
+						.overrideConfiguration(overrideConfig)
 						.build();
 			} else {
-				dynamoDbClient = DynamoDbClient
+				client = DynamoDbClient
 						.builder()
 						.region(Region.of("Region"))
+						.httpClient(httpClient)
+						.overrideConfiguration(overrideConfig)
 						.build();
 			}
 
 			enhancedClient = DynamoDbEnhancedClient
 					.builder()
-					.dynamoDbClient(dynamoDbClient)
+					.dynamoDbClient(client)
 					.build();
+
+			// enhancedClient까지 준비된 뒤에 공개해야 다른 스레드가 null을 보지 않음
+			dynamoDbClient = client;
 		} catch (Exception e) {
 			MyPrint.printf(e);
 		}
 	}
 
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isBlank() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
 	public <T> String put(String tableName, String primaryKeyName, String primaryKeyValue, String json, boolean toPrettyText, Class<T> myClass) {
 		try {
 			// JSON -> Map
@@ -74,6 +207,7 @@ public class DynamoDB {
 
 			// 저장
 			table.putItem(item);
+			ITEM_CACHE.invalidate(tableName, primaryKeyName, primaryKeyValue);
 
 			if (toPrettyText == true) {
 				return OBJECT_MAPPER
@@ -91,23 +225,9 @@ public class DynamoDB {
 
 	public <T> T get(String tableName, String keyName, String keyValue, BoolRef isErrored, Class<T> myClass) {
 		try {
-			Map<String, AttributeValue> key = new HashMap<>();
-
-			key.put(keyName,
-					AttributeValue.builder()
-					.s(keyValue)
-					.build()
-			);
-
-			GetItemRequest request = GetItemRequest
-					.builder()
-					.tableName(tableName)
-					.key(key)
-					.build();
+			String docJson = ITEM_CACHE.get(tableName, keyName, keyValue, () -> loadItemJson(tableName, keyName, keyValue));
 
-			GetItemResponse response = dynamoDbClient.getItem(request);
-
-			if (response == null || response.hasItem() == false || response.item().isEmpty() == true) {
+			if (docJson == null) {
 				if (isErrored != null) {
 					isErrored.value = true;
 				}
@@ -115,13 +235,6 @@ public class DynamoDB {
 				return null;
 			}
 
-			Map<String, AttributeValue> itemMap = response.item();
-
-			Map<String, Object> simpleMap = toSimpleMap(itemMap);
-			String docJson = OBJECT_MAPPER.writeValueAsString(simpleMap);
-
-			MyPrint.printf(docJson);
-
 			T result = OBJECT_MAPPER.readValue(docJson, myClass);
 
 			return result;
@@ -136,6 +249,38 @@ public class DynamoDB {
 		}
 	}
 
+	// DynamoDB에서 직접 읽어 JSON으로 변환 (아이템이 없으면 null)
+	private String loadItemJson(String tableName, String keyName, String keyValue) throws Exception {
+		Map<String, AttributeValue> key = new HashMap<>();
+
+		key.put(keyName,
+				AttributeValue.builder()
+				.s(keyValue)
+				.build()
+		);
+
+		GetItemRequest request = GetItemRequest
+				.builder()
+				.tableName(tableName)
+				.key(key)
+				.build();
+
+		GetItemResponse response = dynamoDbClient.getItem(request);
+
+		if (response == null || response.hasItem() == false || response.item().isEmpty() == true) {
+			return null;
+		}
+
+		Map<String, AttributeValue> itemMap = response.item();
+
+		Map<String, Object> simpleMap = toSimpleMap(itemMap);
+		String docJson = OBJECT_MAPPER.writeValueAsString(simpleMap);
+
+		MyPrint.printf(docJson);
+
+		return docJson;
+	}
+
 	// --------- AttributeValue Map → 단순 Map 변환 함수 ---------
 	private Map<String, Object> toSimpleMap(Map<String, AttributeValue> item) {
 		Map<String, Object> map = new HashMap<>();
@@ -0,0 +1,262 @@
+package com.chungho.snippet.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * DynamoDB.get 앞단에 두는 로컬 아이템 캐시 (DAX 비슷한 read-through 캐시).
+ * - (table, keyName, keyValue) 단위로 조회 결과 JSON을 보관 (JSON은 불변이므로 호출자마다 새 객체로 역직렬화됨)
+ * - 전체 크기 제한 (LRU), 테이블별 TTL, 없는 아이템에 대한 negative 캐시
+ * - 같은 키에 대한 동시 miss는 한 번만 DynamoDB를 호출 (request coalescing)
+ * - put 시 해당 키를 무효화 (write-through invalidation)
+ * - 기본은 꺼져 있음 (TTL 0): 기존 호출자의 read-after-write 동작이 바뀌지 않도록, 필요한 테이블만 setTableTtlMillis / setDefaultTtlMillis로 켬
+ */
+public class DynamoDBItemCache {
+
+	@FunctionalInterface
+	public interface Loader {
+		/**
+		 * @return 아이템 JSON, 아이템이 없으면 null
+		 */
+		String load() throws Exception;
+	}
+
+	private static final long DEFAULT_TTL_MILLIS = 0;
+	private static final long DEFAULT_NEGATIVE_TTL_MILLIS = 1000;
+
+	private final int maxSize;
+	private volatile long defaultTtlMillis = DEFAULT_TTL_MILLIS;
+	private volatile long negativeTtlMillis = DEFAULT_NEGATIVE_TTL_MILLIS;
+	private final Map<String, Long> tableTtlMillis = new ConcurrentHashMap<>();
+
+	// access-order LinkedHashMap 으로 LRU 구현 (접근은 항상 synchronized(entries))
+	private final LinkedHashMap<String, Entry> entries;
+	private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+	// load 도중 put이 들어온 경우 오래된 값을 캐시에 넣지 않기 위한 세대 번호
+	// (키 해시로 나눈 샤드별, 다른 키에 대한 쓰기가 진행 중인 load를 막지 않도록)
+	// 비교 후 저장과 증가 후 삭제가 서로 끼어들지 않도록 entries와 같은 락으로 보호
+	private static final int GENERATION_SHARDS = 256;
+	private final long[] generations = new long[GENERATION_SHARDS];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder negativeHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private static class Entry {
+		final String json;        // null 이면 negative 엔트리
+		final long expireAtNanos;
+
+		Entry(String json, long expireAtNanos) {
+			this.json = json;
+			this.expireAtNanos = expireAtNanos;
+		}
+	}
+
+	public DynamoDBItemCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > DynamoDBItemCache.this.maxSize) {
+					evictions.increment();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	public void setDefaultTtlMillis(long ttlMillis) {
+		this.defaultTtlMillis = ttlMillis;
+	}
+
+	public void setNegativeTtlMillis(long ttlMillis) {
+		this.negativeTtlMillis = ttlMillis;
+	}
+
+	/**
+	 * 테이블별 TTL 지정. 0 이하면 해당 테이블은 캐시하지 않음.
+	 */
+	public void setTableTtlMillis(String tableName, long ttlMillis) {
+		tableTtlMillis.put(tableName, ttlMillis);
+	}
+
+	public String get(String tableName, String keyName, String keyValue, Loader loader) throws Exception {
+		long ttlMillis = tableTtlMillis.getOrDefault(tableName, defaultTtlMillis);
+
+		if (ttlMillis <= 0) {
+			return loader.load();
+		}
+
+		String cacheKey = toCacheKey(tableName, keyName, keyValue);
+		Entry entry = lookup(cacheKey);
+
+		if (entry != null) {
+			hits.increment();
+
+			if (entry.json == null) {
+				negativeHits.increment();
+			}
+
+			return entry.json;
+		}
+
+		misses.increment();
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		CompletableFuture<String> existing = inFlight.putIfAbsent(cacheKey, future);
+
+		if (existing != null) {
+			// 이미 다른 스레드가 같은 키를 읽는 중이면 그 결과를 기다림
+			coalesced.increment();
+
+			return await(existing);
+		}
+
+		int shard = shardOf(cacheKey);
+		long startGeneration = generationOf(shard);
+
+		try {
+			String json = loader.load();
+			long entryTtlMillis = json == null ? Math.min(ttlMillis, negativeTtlMillis) : ttlMillis;
+
+			if (entryTtlMillis > 0) {
+				store(cacheKey, shard, startGeneration, new Entry(json, System.nanoTime() + entryTtlMillis * 1_000_000L));
+			}
+
+			future.complete(json);
+
+			return json;
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+
+			throw e;
+		} finally {
+			inFlight.remove(cacheKey, future);
+		}
+	}
+
+	public void invalidate(String tableName, String keyName, String keyValue) {
+		String cacheKey = toCacheKey(tableName, keyName, keyValue);
+
+		synchronized (entries) {
+			generations[shardOf(cacheKey)]++;
+			entries.remove(cacheKey);
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			for (int i = 0; i < GENERATION_SHARDS; i++) {
+				generations[i]++;
+			}
+
+			entries.clear();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getNegativeHits() {
+		return negativeHits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public double getHitRate() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+
+		if (total == 0) {
+			return 0.0;
+		}
+
+		return (double) hitCount / total;
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("hits=%d (negative=%d), misses=%d, coalesced=%d, evictions=%d, hitRate=%.3f, size=%d",
+				getHits(), getNegativeHits(), getMisses(), getCoalesced(), getEvictions(), getHitRate(), size());
+	}
+
+	private Entry lookup(String cacheKey) {
+		synchronized (entries) {
+			Entry entry = entries.get(cacheKey);
+
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.expireAtNanos - System.nanoTime() <= 0) {
+				entries.remove(cacheKey);
+				return null;
+			}
+
+			return entry;
+		}
+	}
+
+	private long generationOf(int shard) {
+		synchronized (entries) {
+			return generations[shard];
+		}
+	}
+
+	// load 시작 이후 같은 샤드에 invalidate가 있었으면 (읽은 값이 쓰기 전 값일 수 있으므로) 저장하지 않음
+	private void store(String cacheKey, int shard, long startGeneration, Entry entry) {
+		synchronized (entries) {
+			if (generations[shard] == startGeneration) {
+				entries.put(cacheKey, entry);
+			}
+		}
+	}
+
+	private String await(CompletableFuture<String> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+
+			throw e;
+		}
+	}
+
+	private static int shardOf(String cacheKey) {
+		int h = cacheKey.hashCode();
+
+		return (h ^ (h >>> 16)) & (GENERATION_SHARDS - 1);
+	}
+
+	private static String toCacheKey(String tableName, String keyName, String keyValue) {
+		return tableName + '\u0000' + keyName + '\u0000' + keyValue;
+	}
+}
@@ -0,0 +1,78 @@
+package com.chungho.snippet.common;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/*
+ * Crypto 청크 스트림 포맷(AES.encryptStream)의 요청/응답 본문을 InputStream으로 주고받는 컨버터.
+ * 본문을 통째로 메모리에 올리지 않고 청크 단위로 복호화/암호화함.
+ *
+ * 사용 예)
+ * @PostMapping(value = "/upload", consumes = "application/x-encrypted-stream", produces = "application/x-encrypted-stream")
+ * public InputStream upload(@RequestBody InputStream body) { ... }
+ *
+ * 키는 요청 헤더(Crypto.SESSION_HEADER)의 세션 ID로 찾음. 미디어 타입이 명시된 경우에만 동작.
+ */
+public class EncryptedStreamHttpMessageConverter extends AbstractHttpMessageConverter<InputStream> {
+
+	public static final MediaType MEDIA_TYPE = new MediaType("application", "x-encrypted-stream");
+
+	public EncryptedStreamHttpMessageConverter() {
+		super(MEDIA_TYPE);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return InputStream.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return mediaType != null && MEDIA_TYPE.includes(mediaType);
+	}
+
+	@Override
+	protected boolean canWrite(MediaType mediaType) {
+		return mediaType != null && mediaType.isWildcardType() == false && MEDIA_TYPE.isCompatibleWith(mediaType);
+	}
+
+	@Override
+	protected InputStream readInternal(Class<? extends InputStream> clazz, HttpInputMessage inputMessage) throws IOException {
+		try {
+			return currentCrypto().openDecryptedRequestBody();
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+		}
+	}
+
+	@Override
+	protected void writeInternal(InputStream body, HttpOutputMessage outputMessage) throws IOException {
+		try (InputStream in = body) {
+			currentCrypto().encryptResponseBody(in, outputMessage.getBody());
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new HttpMessageNotWritableException(e.getMessage(), e);
+		}
+	}
+
+	private Crypto currentCrypto() {
+		ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+
+		Crypto crypto = new Crypto();
+		crypto.setHttpRequest(attributes.getRequest());
+
+		return crypto;
+	}
+}
@@ -1,26 +1,178 @@
 package com.chungho.snippet.common;
 
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
 public final class MyPrint {
 	private MyPrint() {
 		// 유틸 클래스이므로 인스턴스 생성 방지
 	}
 
+	public enum Level {
+		DEBUG,
+		INFO,
+		WARN,
+		ERROR,
+	}
+
+	// 호출 위치를 찾을 때 건너뛸 클래스 (MyPrint, MyPrint.Sampler)
+	private static final String SELF_CLASS_NAME = MyPrint.class.getName();
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+	// 환경변수 MYPRINT_LEVEL (기본 INFO). printf는 INFO 레벨.
+	private static volatile Level minLevel = parseLevel(System.getenv("MYPRINT_LEVEL"), Level.INFO);
+
+	public static void setLevel(Level level) {
+		minLevel = level;
+	}
+
+	public static boolean isEnabled(Level level) {
+		return level.ordinal() >= minLevel.ordinal();
+	}
+
+	/*
+	 * 포맷한 한 줄을 AsyncLogWriter 링 버퍼에 넣고 바로 리턴 (실제 출력은 백그라운드 스레드에서).
+	 */
 	public static void printf(Object message) {
-		// 현재 스레드의 스택 트레이스를 얻는다.
-		StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+		log(Level.INFO, message);
+	}
+
+	/*
+	 * 메시지를 만드는 비용이 큰 경우: 레벨이 꺼져 있으면 supplier를 호출하지 않음.
+	 */
+	public static void printf(Supplier<?> message) {
+		log(Level.INFO, message);
+	}
+
+	public static void debug(Object message) {
+		log(Level.DEBUG, message);
+	}
+
+	public static void debug(Supplier<?> message) {
+		log(Level.DEBUG, message);
+	}
+
+	public static void warn(Object message) {
+		log(Level.WARN, message);
+	}
+
+	public static void warn(Supplier<?> message) {
+		log(Level.WARN, message);
+	}
+
+	public static void error(Object message) {
+		log(Level.ERROR, message);
+	}
+
+	public static void error(Supplier<?> message) {
+		log(Level.ERROR, message);
+	}
+
+	public static void log(Level level, Object message) {
+		if (isEnabled(level) == false) {
+			return;
+		}
+
+		write(level, message, null);
+	}
+
+	public static void log(Level level, Supplier<?> message) {
+		if (isEnabled(level) == false) {
+			return;
+		}
+
+		write(level, message.get(), null);
+	}
 
-		if (stackTrace.length > 2) {
-			StackTraceElement caller = stackTrace[2];
+	/**
+	 * 호출 위치 하나마다 static final 필드로 만들어 두고 사용 (N번에 1번만 출력).
+	 * 예) private static final MyPrint.Sampler SQL_LOG = MyPrint.sampler(100);
+	 */
+	public static Sampler sampler(int every) {
+		return new Sampler(Level.INFO, every);
+	}
 
-			String fileName = caller.getFileName();     // 예: "SomeClass.java"
-			int lineNumber = caller.getLineNumber();    // 호출된 라인 번호
-			String methodName = caller.getMethodName(); // 호출한 메서드 이름
+	/**
+	 * @param envName 샘플링 간격을 읽을 환경변수 (없거나 잘못된 값이면 defaultEvery)
+	 */
+	public static Sampler sampler(String envName, int defaultEvery) {
+		int every = defaultEvery;
+		String value = System.getenv(envName);
 
-			System.out.printf("[%s:%d#%s()] %s%n", fileName, lineNumber, methodName, String.valueOf(message));
-		} else {
-			// 혹시라도 스택이 너무 짧은 경우를 대비한 fallback
-			System.out.println(String.valueOf(message));
+		if (value != null && value.isEmpty() == false) {
+			try {
+				every = Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				printf(e.getMessage());
+			}
 		}
+
+		return sampler(every);
 	}
 
+	public static final class Sampler {
+		private final Level level;
+		private final int every;
+		private final AtomicLong count = new AtomicLong();
+
+		private Sampler(Level level, int every) {
+			this.level = level;
+			this.every = Math.max(1, every);
+		}
+
+		public void printf(Supplier<?> message) {
+			if (isEnabled(level) == false) {
+				return;
+			}
+
+			if (every > 1 && count.getAndIncrement() % every != 0) {
+				return;
+			}
+
+			write(level, message.get(), every > 1 ? " (sampled 1/" + every + ")" : null);
+		}
+	}
+
+	private static void write(Level level, Object message, String suffix) {
+		// 호출한 곳 한 프레임만 찾음 (전체 스택 트레이스를 만들지 않음)
+		Optional<StackWalker.StackFrame> caller = STACK_WALKER.walk(frames -> frames
+				.dropWhile(frame -> frame.getClassName().startsWith(SELF_CLASS_NAME))
+				.findFirst());
+
+		StringBuilder line = new StringBuilder(128);
+
+		if (caller.isPresent() == true) {
+			StackWalker.StackFrame frame = caller.get();
+
+			line.append('[').append(frame.getFileName())     // 예: "SomeClass.java"
+					.append(':').append(frame.getLineNumber()) // 호출된 라인 번호
+					.append('#').append(frame.getMethodName()) // 호출한 메서드 이름
+					.append("()] ");
+		}
+
+		if (level != Level.INFO) {
+			line.append(level).append(' ');
+		}
+
+		line.append(message);
+
+		if (suffix != null) {
+			line.append(suffix);
+		}
+
+		AsyncLogWriter.getInstance().write(line.toString());
+	}
+
+	private static Level parseLevel(String value, Level defaultLevel) {
+		if (value == null || value.isEmpty() == true) {
+			return defaultLevel;
+		}
+
+		try {
+			return Level.valueOf(value.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return defaultLevel;
+		}
+	}
 }
@@ -8,12 +8,53 @@ import java.lang.reflect.Field;
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class MySQL implements AutoCloseable {
 
 	// ***** 커넥션 풀 (앱 전체 공유) *****
-	private static HikariDataSource dataSource;
+	// 예시: jdbc:mysql://host:3306/dbname?useSSL=false&serverTimezone=UTC
+	private static final String URL = "jdbc:mysql://localhost:3306/db?useSSL=false&serverTimezone=UTC+9";
+	private static volatile HikariDataSource dataSource;
+	// 풀 생성은 한 스레드만, 나머지는 CONNECTION_TIMEOUT_MILLIS까지만 기다림
+	private static final ReentrantLock DATA_SOURCE_LOCK = new ReentrantLock();
+	// 풀에서 커넥션을 기다리는 최대 시간 (풀이 만들어지기를 기다리는 시간도 같음)
+	private static final long CONNECTION_TIMEOUT_MILLIS = 30000;
+	// 서버의 max_allowed_packet (처음 upsert 때 조회)
+	private static volatile long maxAllowedPacket;
+	private static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+	private static final int MAXIMUM_POOL_SIZE = 10;
+
+	// ***** 쿼리 타임아웃 / 커넥션 누수 감지 *****
+	// 기본 쿼리 타임아웃 (초, 0이면 무제한), 인스턴스마다 setQueryTimeout으로 변경 가능
+	private static final int DEFAULT_QUERY_TIMEOUT_SECONDS = (int) envLong("MYSQL_QUERY_TIMEOUT_SECONDS", 30);
+	// 커넥션을 이 시간 이상 반납하지 않으면 빌려간 위치의 스택과 함께 경고 로그 (0이면 끔)
+	private static final long LEAK_DETECTION_THRESHOLD_MILLIS = envLong("MYSQL_LEAK_DETECTION_MS", 60000);
+
+	// queryAsync 실행 스레드 (풀 최대 크기와 같게 해서 커넥션 대기 스레드가 쌓이지 않도록)
+	private static final AtomicInteger asyncThreadNumber = new AtomicInteger();
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newFixedThreadPool(MAXIMUM_POOL_SIZE, r -> {
+		Thread thread = new Thread(r, "mysql-async-" + asyncThreadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	// ***** 트랜잭션 전용 커넥션 *****
 	private Connection conn;
@@ -21,10 +62,55 @@ public class MySQL implements AutoCloseable {
 
 	@Getter
 	private int queryErrorCode;
+	// 현재 트랜잭션에서 발생한 재시도 가능 에러 (데드락 / 락 대기 타임아웃), 없으면 0
+	private int retryableErrorCode;
 	public String stage;
 
+	// ***** 타임아웃 / 취소 *****
+	private int queryTimeoutSeconds = DEFAULT_QUERY_TIMEOUT_SECONDS;
+	// 지금 실행 중인 Statement (cancel()이 다른 스레드에서 취소)
+	private volatile Statement currentStatement;
+	private volatile boolean cancelled;
+
+	// 현재 트랜잭션에서 쓰기가 일어난 테이블 (커밋 후 결과 캐시에서 한 번 더 제거)
+	private final Set<String> writtenTables = new HashSet<>();
+
 	// MySQL Duplicate Key 에러 코드 (MySqlErrorCode.DuplicateKey 에 해당)
 	private static final int MYSQL_DUPLICATE_KEY = 1062;
+	// 트랜잭션 재시도 대상: ER_LOCK_WAIT_TIMEOUT, ER_LOCK_DEADLOCK
+	private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+	private static final int MYSQL_DEADLOCK = 1213;
+
+	// ***** 트랜잭션 재시도 설정 *****
+	private static final int DEFAULT_TRANSACTION_ATTEMPTS = 5;
+	private static final long RETRY_BASE_DELAY_MILLIS = 20;
+	private static final long RETRY_MAX_DELAY_MILLIS = 1000;
+	// 재시도 예산: 트랜잭션마다 1토큰 적립, 재시도 1번에 10토큰 사용 (장기적으로 재시도는 전체의 10% 이내, 최대 100번 연속)
+	private static final long RETRY_BUDGET_MAX = 1000;
+	private static final long RETRY_BUDGET_COST = 10;
+	private static final AtomicLong retryBudget = new AtomicLong(RETRY_BUDGET_MAX);
+
+	// ***** 트랜잭션 재시도 지표 *****
+	private static final LongAdder transactionCount = new LongAdder();
+	private static final LongAdder transactionRetryCount = new LongAdder();
+	private static final LongAdder deadlockCount = new LongAdder();
+	private static final LongAdder lockWaitTimeoutCount = new LongAdder();
+	private static final LongAdder retryGiveUpCount = new LongAdder();
+
+	// 쿼리 로그 샘플링 (MYSQL_LOG_SAMPLE_RATE 번에 1번 출력, 기본은 전부 출력)
+	private static final MyPrint.Sampler SQL_LOG = MyPrint.sampler("MYSQL_LOG_SAMPLE_RATE", 1);
+	private static final SlowQueryLog SLOW_QUERY_LOG = SlowQueryLog.getInstance();
+
+	// ***** 조회 결과 캐시 (queryCached) *****
+	private static final QueryResultCache RESULT_CACHE = new QueryResultCache((int) envLong("MYSQL_RESULT_CACHE_MAX_ENTRIES", 1000));
+	// 쓰기 문장의 대상 테이블
+	private static final Pattern WRITE_TABLE = Pattern.compile(
+			"^\\s*(?:INSERT\\s+(?:IGNORE\\s+)?(?:INTO\\s+)?|REPLACE\\s+(?:INTO\\s+)?|UPDATE\\s+(?:LOW_PRIORITY\\s+)?(?:IGNORE\\s+)?"
+					+ "|DELETE\\s+(?:LOW_PRIORITY\\s+)?(?:QUICK\\s+)?(?:IGNORE\\s+)?FROM\\s+|TRUNCATE\\s+(?:TABLE\\s+)?|ALTER\\s+TABLE\\s+|DROP\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?)"
+					+ "([`\\w$.]+)",
+			Pattern.CASE_INSENSITIVE);
+	// 캐시 무효화가 필요 없는 문장
+	private static final Pattern READ_ONLY = Pattern.compile("^\\s*(?:SELECT|SHOW|EXPLAIN|DESCRIBE|DESC|SET|USE|WITH)\\b", Pattern.CASE_INSENSITIVE);
 
 	public enum Result {
 		OK,
@@ -39,62 +125,129 @@ public class MySQL implements AutoCloseable {
 		public Result value;
 	}
 
-	// 정적 블록에서 풀 초기화
-	static {
-		initDataSource();
+	public MySQL() {
+		// 인스턴스 생성 시 별도 작업 없음 (풀은 앱 시작 시 BackendInitializer가, 아니면 처음 쓸 때 준비)
 	}
 
-	public MySQL() {
-		// 인스턴스 생성 시 별도 작업 없음 (풀은 static으로 준비)
+	/*
+	 * 커넥션 풀 준비 (이미 있으면 그대로). 앱 시작 시 BackendInitializer가 다른 백엔드와 병렬로 호출.
+	 * DB에 연결되지 않으면 예외를 던지고, 다음 호출 때 다시 시도.
+	 */
+	public static void initialize() throws SQLException {
+		getDataSource();
+	}
+
+	/*
+	 * URL이 있고 맞는 JDBC 드라이버가 클래스패스에 있는지 (BackendInitializer가 시작 시 미리 초기화할지 판단).
+	 */
+	public static boolean isConfigured() {
+		if (URL.isEmpty() == true) {
+			return false;
+		}
+
+		try {
+			DriverManager.getDriver(URL);
+
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
 	}
 
 	// ***** 커넥션 풀 초기화 *****
-	private static void initDataSource() {
+	// 다른 스레드(보통 BackendInitializer)가 풀을 만드는 중이면 CONNECTION_TIMEOUT_MILLIS까지 기다리고, 그래도 안 되면 SQLException
+	private static HikariDataSource getDataSource() throws SQLException {
+		HikariDataSource ds = dataSource;
+
+		if (ds != null) {
+			return ds;
+		}
+
 		try {
-			HikariConfig config = new HikariConfig();
-
-			// TODO: 실제 연결 문자열 / 계정 정보로 교체
-			// 예시: jdbc:mysql://host:3306/dbname?useSSL=false&serverTimezone=UTC
-			config.setJdbcUrl("jdbc:mysql://localhost:3306/db?useSSL=false&serverTimezone=UTC+9");
-			config.setUsername("user");
-			config.setPassword("password");
-
-			// 풀 옵션 (필요 시 조정)
-			config.setMaximumPoolSize(10);
-			config.setMinimumIdle(2);
-			config.setConnectionTimeout(30000);
-			config.setIdleTimeout(600000);
-			config.setMaxLifetime(1800000);
-
-			dataSource = new HikariDataSource(config);
-		} catch (Exception e) {
-			MyPrint.printf(e);
+			if (DATA_SOURCE_LOCK.tryLock(CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) == false) {
+				throw new SQLException("MySQL pool not ready");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new SQLException("MySQL pool not ready", e);
+		}
+
+		try {
+			if (dataSource == null) {
+				dataSource = createDataSource();
+			}
+
+			return dataSource;
+		} finally {
+			DATA_SOURCE_LOCK.unlock();
+		}
+	}
+
+	private static HikariDataSource createDataSource() throws SQLException {
+		HikariConfig config = new HikariConfig();
+
+		// TODO: 실제 연결 문자열 / 계정 정보로 교체
+		config.setJdbcUrl(URL);
+		config.setUsername("user");
+		config.setPassword("password");
+
+		// 풀 옵션 (필요 시 조정)
+		config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+		config.setMinimumIdle(2);
+		config.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+		config.setIdleTimeout(600000);
+		config.setMaxLifetime(1800000);
+		config.setLeakDetectionThreshold(LEAK_DETECTION_THRESHOLD_MILLIS);
+
+		try {
+			// 첫 커넥션을 맺을 때까지 기다림 (연결 실패면 PoolInitializationException)
+			return new HikariDataSource(config);
+		} catch (RuntimeException e) {
+			throw new SQLException("MySQL pool initialization failed", e);
 		}
 	}
 
 	public boolean query(String sql) {
-		MyPrint.printf(sql);
+		SQL_LOG.printf(() -> sql);
 		boolean isError = false;
+		long startNanos = System.nanoTime();
+
+		queryErrorCode = 0;
 
 		// 트랜잭션 중이면 필드 conn 사용
 		if (inTransaction == true && conn != null) {
-			try (Statement stmt = conn.createStatement()) {
+			try (Statement stmt = track(conn.createStatement())) {
 				stmt.execute(sql);
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+				recordSqlError(e);
+				isError = true;
 			} catch (Exception e) {
 				MyPrint.printf(e);
 				isError = true;
 			}
 		} else {
 			// 트랜잭션이 아니면 풀에서 커넥션 하나 빌려서 try-with-resources
-			try (Connection c = dataSource.getConnection();
-			     Statement stmt = c.createStatement()) {
+			try (Connection c = getDataSource().getConnection();
+			     Statement stmt = track(c.createStatement())) {
 				stmt.execute(sql);
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+				recordSqlError(e);
+				isError = true;
 			} catch (Exception e) {
 				MyPrint.printf(e);
 				isError = true;
 			}
 		}
 
+		currentStatement = null;
+		SLOW_QUERY_LOG.record("mysql", sql, System.nanoTime() - startNanos, MySQL::explain);
+
+		// 에러가 나도 일부 반영됐을 수 있으므로 항상 무효화
+		invalidateWrittenTable(sql);
+
 		return isError;
 	}
 
@@ -104,14 +257,15 @@ public class MySQL implements AutoCloseable {
 	 * @param myClass     결과로 매핑할 타입
 	 */
 	public <T extends MySqlQueryResult> List<T> query(String sql, ResultHolder queryResult, Class<T> myClass) {
-		MyPrint.printf(sql);
+		SQL_LOG.printf(() -> sql);
 
 		List<T> results = new ArrayList<>();
 		queryErrorCode = 0;
+		long startNanos = System.nanoTime();
 
 		// 트랜잭션 도중
 		if (inTransaction == true && conn != null) {
-			try (PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+			try (PreparedStatement stmt = track(conn.prepareStatement(sql)); ResultSet rs = stmt.executeQuery()) {
 				mapResultSet(rs, myClass, results);
 			} catch (SQLException e) {
 				handleSqlException(e, sql, queryResult);
@@ -120,7 +274,7 @@ public class MySQL implements AutoCloseable {
 			}
 		} else {
 			// 트랜잭션 아님: 풀에서 커넥션 빌려와서 Connection까지 try-with-resources
-			try (Connection c = dataSource.getConnection(); PreparedStatement stmt = c.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+			try (Connection c = getDataSource().getConnection(); PreparedStatement stmt = track(c.prepareStatement(sql)); ResultSet rs = stmt.executeQuery()) {
 				mapResultSet(rs, myClass, results);
 			} catch (SQLException e) {
 				handleSqlException(e, sql, queryResult);
@@ -129,14 +283,291 @@ public class MySQL implements AutoCloseable {
 			}
 		}
 
+		currentStatement = null;
+		SLOW_QUERY_LOG.record("mysql", sql, System.nanoTime() - startNanos, MySQL::explain);
+
 		return results;
 	}
 
+	/**
+	 * 결과를 로컬 캐시에 두는 query (코드 테이블처럼 작고, 자주 읽고, 거의 안 바뀌는 테이블용).
+	 * - 같은 SQL + myClass면 ttlMillis 동안 DB를 다시 조회하지 않고 같은 불변 리스트를 리턴 (행 객체도 공유하므로 수정 금지)
+	 * - 이 클래스의 query(String) / upsert로 tables 중 하나에 쓰면 바로 제거 (다른 서버나 다른 경로의 쓰기는 TTL로만 반영)
+	 * - 트랜잭션 중에는 캐시를 쓰지 않고, 에러가 난 결과는 캐시하지 않음
+	 *
+	 * @param ttlMillis 캐시 유지 시간
+	 * @param tables    결과가 의존하는 테이블 (JOIN 하면 모두)
+	 */
+	public <T extends MySqlQueryResult> List<T> queryCached(String sql, ResultHolder queryResult, Class<T> myClass, long ttlMillis, String... tables) {
+		if (inTransaction == true && conn != null) {
+			return query(sql, queryResult, myClass);
+		}
+
+		String key = QueryResultCache.key(sql, myClass);
+
+		@SuppressWarnings("unchecked")
+		List<T> cached = (List<T>) RESULT_CACHE.get(key);
+
+		if (cached != null) {
+			return cached;
+		}
+
+		// 조회 도중에 쓰기가 끼어들면 캐시하지 않도록 조회 전 버전을 받아 둠
+		long version = RESULT_CACHE.version(tables);
+		ResultHolder holder = new ResultHolder();
+		List<T> results = query(sql, holder, myClass);
+
+		if (holder.value == Result.Error || queryErrorCode != 0) {
+			if (queryResult != null) {
+				queryResult.value = holder.value;
+			}
+
+			return results;
+		}
+
+		return RESULT_CACHE.put(key, results, ttlMillis, tables, version);
+	}
+
+	/*
+	 * 다른 경로(다른 커넥션, 외부 배치 등)로 table을 바꿨을 때 직접 캐시 무효화.
+	 */
+	public static void invalidateCache(String table) {
+		RESULT_CACHE.invalidateTable(table);
+	}
+
+	public static Map<String, Long> getResultCacheStats() {
+		return RESULT_CACHE.getStats();
+	}
+
+	// 쓰기 문장이면 대상 테이블의 캐시 제거 (트랜잭션 중이면 커밋 후에 한 번 더), 대상을 알 수 없는 쓰기면 전부 제거
+	private void invalidateWrittenTable(String sql) {
+		Matcher matcher = WRITE_TABLE.matcher(sql);
+
+		if (matcher.find() == true) {
+			invalidateTable(matcher.group(1));
+		} else if (READ_ONLY.matcher(sql).find() == false) {
+			RESULT_CACHE.clear();
+		}
+	}
+
+	private void invalidateTable(String table) {
+		RESULT_CACHE.invalidateTable(table);
+
+		if (inTransaction == true) {
+			writtenTables.add(table);
+		}
+	}
+
+	/**
+	 * 행 객체 없이 컬럼별 원시 배열로 받는 SELECT (집계 / ID 목록 등 행이 많은 숫자 위주 쿼리용).
+	 *
+	 * @param sql         실행할 SELECT 쿼리
+	 * @param queryResult 에러 시 Result.Error 등을 세팅하기 위한 홀더
+	 * @return 에러 시 빈 결과
+	 */
+	public ColumnarResult queryColumns(String sql, ResultHolder queryResult) {
+		SQL_LOG.printf(() -> sql);
+
+		ColumnarResult result = null;
+		queryErrorCode = 0;
+		long startNanos = System.nanoTime();
+
+		// 트랜잭션 도중
+		if (inTransaction == true && conn != null) {
+			try (PreparedStatement stmt = track(conn.prepareStatement(sql)); ResultSet rs = stmt.executeQuery()) {
+				result = ColumnarResult.read(rs);
+			} catch (SQLException e) {
+				handleSqlException(e, sql, queryResult);
+			} catch (Exception e) {
+				handleGeneralException(e, sql, queryResult);
+			}
+		} else {
+			try (Connection c = getDataSource().getConnection(); PreparedStatement stmt = track(c.prepareStatement(sql)); ResultSet rs = stmt.executeQuery()) {
+				result = ColumnarResult.read(rs);
+			} catch (SQLException e) {
+				handleSqlException(e, sql, queryResult);
+			} catch (Exception e) {
+				handleGeneralException(e, sql, queryResult);
+			}
+		}
+
+		currentStatement = null;
+		SLOW_QUERY_LOG.record("mysql", sql, System.nanoTime() - startNanos, MySQL::explain);
+
+		return result != null ? result : ColumnarResult.empty();
+	}
+
+	/**
+	 * query를 별도 스레드에서 실행 (트랜잭션 커넥션은 쓰지 않고 항상 풀에서 빌림, 타임아웃은 이 인스턴스 설정을 따름).
+	 * 리턴된 future를 cancel하면 실행 중인 쿼리도 Statement.cancel()로 서버에서 중단됨.
+	 * HTTP 요청이 끊기면 쿼리도 멈추도록 하려면 컨트롤러에서 DeferredResult에 연결:
+	 *
+	 *  CompletableFuture<List<Row>> future = mysql.queryAsync(sql, holder, Row.class);
+	 *  deferred.onTimeout(() -> future.cancel(true));
+	 *  deferred.onError(e -> future.cancel(true));
+	 */
+	public <T extends MySqlQueryResult> CompletableFuture<List<T>> queryAsync(String sql, ResultHolder queryResult, Class<T> myClass) {
+		MySQL worker = new MySQL();
+		worker.queryTimeoutSeconds = queryTimeoutSeconds;
+
+		CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> worker.query(sql, queryResult, myClass), ASYNC_EXECUTOR);
+
+		future.whenComplete((results, e) -> {
+			if (e instanceof CancellationException) {
+				worker.cancel();
+			}
+		});
+
+		return future;
+	}
+
+	/*
+	 * 이후 쿼리의 타임아웃 (초, 0이면 무제한). 넘으면 드라이버가 쿼리를 취소하고 SQLTimeoutException.
+	 */
+	public void setQueryTimeout(int seconds) {
+		queryTimeoutSeconds = Math.max(0, seconds);
+	}
+
+	/*
+	 * 다른 스레드에서 이 인스턴스의 쿼리를 취소 (실행 중인 쿼리는 Statement.cancel(), 이후 쿼리는 실행하지 않고 에러 처리).
+	 * 요청 하나에 인스턴스 하나를 쓰는 기준이라 한 번 취소하면 되돌리지 않음.
+	 */
+	public void cancel() {
+		cancelled = true;
+
+		Statement stmt = currentStatement;
+
+		if (stmt != null) {
+			try {
+				stmt.cancel();
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	// 실행할 Statement에 타임아웃을 걸고 cancel() 대상으로 등록
+	private <S extends Statement> S track(S stmt) throws SQLException {
+		stmt.setQueryTimeout(queryTimeoutSeconds);
+		currentStatement = stmt;
+
+		// cancel()이 등록 직전에 호출된 경우
+		if (cancelled == true) {
+			currentStatement = null;
+			stmt.close();
+
+			throw new SQLException("Query cancelled");
+		}
+
+		return stmt;
+	}
+
+	/**
+	 * rows를 multi-row INSERT ... ON DUPLICATE KEY UPDATE 로 upsert (행 클래스의 필드 = 컬럼).
+	 * 한 문장이 max_allowed_packet을 넘지 않도록 나눠서 실행하므로 N번 왕복이 몇 번으로 줄어듦.
+	 * 트랜잭션 중이 아니면 풀 커넥션 하나로 나눈 문장들을 각각 자동 커밋.
+	 *
+	 * @param table      대상 테이블
+	 * @param rows       넣을 행
+	 * @param keyColumns 키 컬럼 (UPDATE 대상에서 제외)
+	 * @return 에러 여부
+	 */
+	public <T extends MySqlQueryResult> boolean upsert(String table, List<T> rows, List<String> keyColumns) {
+		if (rows == null || rows.isEmpty() == true) {
+			return false;
+		}
+
+		queryErrorCode = 0;
+
+		if (inTransaction == true && conn != null) {
+			boolean isError = executeUpsert(conn, table, rows, keyColumns);
+			invalidateTable(table);
+
+			return isError;
+		}
+
+		try (Connection c = getDataSource().getConnection()) {
+			return executeUpsert(c, table, rows, keyColumns);
+		} catch (SQLException e) {
+			MyPrint.printf(e);
+			recordSqlError(e);
+
+			return true;
+		} finally {
+			invalidateTable(table);
+		}
+	}
+
+	private boolean executeUpsert(Connection c, String table, List<?> rows, List<String> keyColumns) {
+		try {
+			// 패킷 한도의 3/4 까지만 사용 (추정치 오차 여유)
+			long maxStatementBytes = getMaxAllowedPacket(c) / 4 * 3;
+			int statements = BulkUpsert.execute(c, BulkUpsert.Dialect.MYSQL, table, rows, keyColumns, maxStatementBytes, this::track);
+
+			SQL_LOG.printf(() -> "UPSERT " + table + " rows=" + rows.size() + " statements=" + statements);
+
+			return false;
+		} catch (SQLException e) {
+			MyPrint.printf(e);
+			recordSqlError(e);
+		} catch (Exception e) {
+			MyPrint.printf(e);
+		}
+
+		return true;
+	}
+
+	private static long getMaxAllowedPacket(Connection c) {
+		if (maxAllowedPacket > 0) {
+			return maxAllowedPacket;
+		}
+
+		try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery("SELECT @@max_allowed_packet")) {
+			if (rs.next() == true) {
+				maxAllowedPacket = rs.getLong(1);
+			}
+		} catch (SQLException e) {
+			MyPrint.printf(e);
+		}
+
+		return maxAllowedPacket > 0 ? maxAllowedPacket : DEFAULT_MAX_ALLOWED_PACKET;
+	}
+
+	/*
+	 * 느린 쿼리의 EXPLAIN (SlowQueryLog 스레드에서 풀의 다른 커넥션으로 실행, 행마다 "컬럼=값" 한 줄).
+	 */
+	private static String explain(String sql) throws SQLException {
+		try (Connection c = getDataSource().getConnection(); Statement stmt = c.createStatement()) {
+			stmt.setQueryTimeout(DEFAULT_QUERY_TIMEOUT_SECONDS);
+
+			try (ResultSet rs = stmt.executeQuery("EXPLAIN " + sql)) {
+				return formatRows(rs);
+			}
+		}
+	}
+
+	private static String formatRows(ResultSet rs) throws SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		StringBuilder text = new StringBuilder();
+
+		while (rs.next() == true) {
+			if (text.length() > 0) {
+				text.append('\n');
+			}
+
+			for (int i = 1; i <= meta.getColumnCount(); i++) {
+				text.append(i == 1 ? "" : " ").append(meta.getColumnLabel(i)).append('=').append(rs.getString(i));
+			}
+		}
+
+		return text.toString();
+	}
+
 	// ***** ResultSet → T 리스트 매핑 *****
 	private <T extends MySqlQueryResult> void mapResultSet(ResultSet rs, Class<T> myClass, List<T> results) throws Exception {
 		ResultSetMetaData meta = rs.getMetaData();
 		int columnCount = meta.getColumnCount();
-		Field[] fields = myClass.getDeclaredFields();
+		Field[] fields = BulkUpsert.fieldsOf(myClass);
 
 		while (rs.next() == true) {
 			T result = myClass.getDeclaredConstructor().newInstance();
@@ -149,7 +580,6 @@ public class MySQL implements AutoCloseable {
 					Field field = findFieldIgnoreCase(fields, columnName);
 
 					if (field != null) {
-						field.setAccessible(true);
 						Object converted = convertValue(fieldValue, field.getType());
 						field.set(result, converted);
 					}
@@ -164,13 +594,25 @@ public class MySQL implements AutoCloseable {
 		MyPrint.printf(e);
 		MyPrint.printf(sql);
 
-		queryErrorCode = e.getErrorCode();
+		recordSqlError(e);
 
 		if (queryErrorCode != MYSQL_DUPLICATE_KEY && queryResult != null) {
 			queryResult.value = Result.Error;
 		}
 	}
 
+	private void recordSqlError(SQLException e) {
+		queryErrorCode = e.getErrorCode();
+
+		if (inTransaction == true && isRetryableError(queryErrorCode) == true) {
+			retryableErrorCode = queryErrorCode;
+		}
+	}
+
+	private static boolean isRetryableError(int errorCode) {
+		return errorCode == MYSQL_DEADLOCK || errorCode == MYSQL_LOCK_WAIT_TIMEOUT;
+	}
+
 	private void handleGeneralException(Exception e, String sql, ResultHolder queryResult) {
 		MyPrint.printf(e);
 		MyPrint.printf(sql);
@@ -260,7 +702,7 @@ public class MySQL implements AutoCloseable {
 				return;
 			}
 
-			conn = dataSource.getConnection();
+			conn = getDataSource().getConnection();
 			conn.setAutoCommit(false);
 			inTransaction = true;
 		} catch (SQLException e) {
@@ -277,8 +719,14 @@ public class MySQL implements AutoCloseable {
 				}
 
 				conn.commit();
+
+				// 트랜잭션 도중 캐시된 (커밋 전) 값 제거
+				for (String table : writtenTables) {
+					RESULT_CACHE.invalidateTable(table);
+				}
 			} catch (SQLException e) {
 				MyPrint.printf(e);
+				recordSqlError(e);
 			} finally {
 				try {
 					conn.setAutoCommit(true);
@@ -309,6 +757,119 @@ public class MySQL implements AutoCloseable {
 		}
 	}
 
+	/**
+	 * work를 트랜잭션 안에서 실행하고 커밋. 데드락(1213) / 락 대기 타임아웃(1205)이 나면 롤백 후 지터 백오프를 두고 처음부터 다시 실행.
+	 * - work 안에서는 인자로 받은 MySQL(this)로 query를 호출 (트랜잭션 커넥션 사용)
+	 * - work 안에서 rollback()을 호출하면 커밋하지 않고 그대로 리턴
+	 * - work가 예외를 던지면 롤백 후 그대로 던짐 (재시도하지 않음)
+	 * - 재시도 횟수를 다 쓰거나 전역 재시도 예산이 바닥나면 마지막 결과를 리턴하고, getQueryErrorCode()에 1213 / 1205가 남음
+	 */
+	public <R> R inTransaction(Function<MySQL, R> work) {
+		return inTransaction(work, DEFAULT_TRANSACTION_ATTEMPTS);
+	}
+
+	public <R> R inTransaction(Function<MySQL, R> work, int maxAttempts) {
+		transactionCount.increment();
+		depositRetryBudget();
+
+		R result = null;
+
+		for (int attempt = 1; ; attempt++) {
+			retryableErrorCode = 0;
+			beginTransaction();
+
+			if (inTransaction == false) {
+				// 커넥션을 못 빌린 경우
+				return null;
+			}
+
+			try {
+				result = work.apply(this);
+			} catch (RuntimeException e) {
+				rollback();
+				throw e;
+			}
+
+			if (inTransaction == true) {
+				if (retryableErrorCode != 0) {
+					rollback();
+				} else {
+					commit(false);
+				}
+			}
+
+			int errorCode = retryableErrorCode;
+
+			if (errorCode == 0) {
+				return result;
+			}
+
+			if (errorCode == MYSQL_DEADLOCK) {
+				deadlockCount.increment();
+			} else {
+				lockWaitTimeoutCount.increment();
+			}
+
+			if (attempt >= maxAttempts || tryAcquireRetryBudget() == false) {
+				retryGiveUpCount.increment();
+				queryErrorCode = errorCode;
+
+				return result;
+			}
+
+			transactionRetryCount.increment();
+
+			try {
+				Thread.sleep(retryDelayMillis(attempt));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				queryErrorCode = errorCode;
+
+				return result;
+			}
+		}
+	}
+
+	/*
+	 * 트랜잭션 재시도 지표 (누적값).
+	 */
+	public static Map<String, Long> getTransactionMetrics() {
+		Map<String, Long> metrics = new LinkedHashMap<>();
+		metrics.put("transactions", transactionCount.sum());
+		metrics.put("retries", transactionRetryCount.sum());
+		metrics.put("deadlocks", deadlockCount.sum());
+		metrics.put("lockWaitTimeouts", lockWaitTimeoutCount.sum());
+		metrics.put("giveUps", retryGiveUpCount.sum());
+		metrics.put("retryBudget", retryBudget.get());
+
+		return metrics;
+	}
+
+	private static void depositRetryBudget() {
+		retryBudget.updateAndGet(tokens -> Math.min(RETRY_BUDGET_MAX, tokens + 1));
+	}
+
+	private static boolean tryAcquireRetryBudget() {
+		while (true) {
+			long tokens = retryBudget.get();
+
+			if (tokens < RETRY_BUDGET_COST) {
+				return false;
+			}
+
+			if (retryBudget.compareAndSet(tokens, tokens - RETRY_BUDGET_COST) == true) {
+				return true;
+			}
+		}
+	}
+
+	// 지수 백오프 + jitter
+	private static long retryDelayMillis(int attempt) {
+		long delay = Math.min(RETRY_MAX_DELAY_MILLIS, RETRY_BASE_DELAY_MILLIS << Math.min(attempt - 1, 20));
+
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
 	// AutoCloseable 구현
 	@Override
 	public void close() {
@@ -327,7 +888,24 @@ public class MySQL implements AutoCloseable {
 			} finally {
 				conn = null;
 				inTransaction = false;
+				writtenTables.clear();
 			}
 		}
 	}
+
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isEmpty() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			MyPrint.printf(e.getMessage());
+
+			return defaultValue;
+		}
+	}
 }
@@ -1,21 +1,72 @@
 package com.chungho.snippet.common;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
 import java.lang.reflect.Field;
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class PostgreSQL implements AutoCloseable {
 
+	// 트랜잭션 중에만 들고 있는 커넥션 (그 외에는 쿼리마다 풀에서 빌리고 바로 반납)
 	private Connection connection;
 	private boolean inTransaction;
 	private String queryErrorCode = "";
 
+	// ***** 타임아웃 / 취소 *****
+	private int queryTimeoutSeconds = DEFAULT_QUERY_TIMEOUT_SECONDS;
+	// 지금 실행 중인 Statement (cancel()이 다른 스레드에서 취소)
+	private volatile Statement currentStatement;
+	private volatile boolean cancelled;
+
+	// C#의 NpgsqlConnection 문자열을 그대로 JDBC로 옮긴 예시
+	// 실제로는 host/port/db/user/pass를 분리해서 관리하는 것이 좋습니다.
+	private static final String URL = "";
+	private static final String USER = "";
+	private static final String PASSWORD = "";
+
+	// ***** 커넥션 풀 (앱 전체 공유) *****
+	private static volatile HikariDataSource dataSource;
+	// 풀 생성은 한 스레드만, 나머지는 CONNECTION_TIMEOUT_MILLIS까지만 기다림
+	private static final ReentrantLock DATA_SOURCE_LOCK = new ReentrantLock();
+	// 풀에서 커넥션을 기다리는 최대 시간 (풀이 만들어지기를 기다리는 시간도 같음)
+	private static final long CONNECTION_TIMEOUT_MILLIS = 30000;
+	private static final int MAXIMUM_POOL_SIZE = 10;
+	// 커넥션을 이 시간 이상 반납하지 않으면 빌려간 위치의 스택과 함께 경고 로그 (0이면 끔)
+	private static final long LEAK_DETECTION_THRESHOLD_MILLIS = envLong("POSTGRESQL_LEAK_DETECTION_MS", 60000);
+
 	// PostgreSQL duplicate_column 에러 코드 (C#의 PostgresErrorCodes.DuplicateColumn)
 	private static final String DUPLICATE_COLUMN = "42701";
 
+	// 한 upsert 문장의 최대 크기 (PostgreSQL은 max_allowed_packet 같은 한도가 없으므로 고정값)
+	private static final long MAX_UPSERT_STATEMENT_BYTES = 16L * 1024 * 1024;
+
+	// 쿼리 로그 샘플링 (POSTGRESQL_LOG_SAMPLE_RATE 번에 1번 출력, 기본은 전부 출력)
+	private static final MyPrint.Sampler SQL_LOG = MyPrint.sampler("POSTGRESQL_LOG_SAMPLE_RATE", 1);
+	private static final SlowQueryLog SLOW_QUERY_LOG = SlowQueryLog.getInstance();
+
+	// 기본 쿼리 타임아웃 (초, 0이면 무제한), 인스턴스마다 setQueryTimeout으로 변경 가능
+	private static final int DEFAULT_QUERY_TIMEOUT_SECONDS = (int) envLong("POSTGRESQL_QUERY_TIMEOUT_SECONDS", 30);
+
+	// queryAsync 실행 스레드 (풀 최대 크기와 같게 해서 커넥션 대기 스레드가 쌓이지 않도록)
+	private static final AtomicInteger asyncThreadNumber = new AtomicInteger();
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newFixedThreadPool(MAXIMUM_POOL_SIZE, r -> {
+		Thread thread = new Thread(r, "postgresql-async-" + asyncThreadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	// C#의 ref Result queryResult 를 대체하는 홀더
 	public static class ResultHolder {
 		public Result value;
@@ -33,9 +84,12 @@ public class PostgreSQL implements AutoCloseable {
 	}
 
 	public PostgreSQL() {
-		if (connection == null) {
-			init();
-		}
+		// 인스턴스 생성 시 별도 작업 없음 (풀은 앱 시작 시 BackendInitializer가, 아니면 처음 쓸 때 준비)
+	}
+
+	// queryAsync 작업용 (커넥션은 작업 스레드에서 쿼리할 때 빌림)
+	private PostgreSQL(int queryTimeoutSeconds) {
+		this.queryTimeoutSeconds = queryTimeoutSeconds;
 	}
 
 	@Override
@@ -44,43 +98,136 @@ public class PostgreSQL implements AutoCloseable {
 		close();
 	}
 
-	public void init() {
+	/*
+	 * 커넥션 풀 준비 (이미 있으면 그대로). 앱 시작 시 BackendInitializer가 다른 백엔드와 병렬로 호출.
+	 * DB에 연결되지 않으면 예외를 던지고, 다음 호출 때 다시 시도.
+	 */
+	public static void initialize() throws SQLException {
+		getDataSource();
+	}
+
+	/*
+	 * 풀이 없으면 만들어서 리턴. 다른 스레드(보통 BackendInitializer)가 만드는 중이면 CONNECTION_TIMEOUT_MILLIS까지 기다리고, 그래도 안 되면 SQLException.
+	 */
+	private static HikariDataSource getDataSource() throws SQLException {
+		HikariDataSource ds = dataSource;
+
+		if (ds != null) {
+			return ds;
+		}
+
 		try {
-			// 필요 시 드라이버 로드 (요즘은 생략 가능하지만 명시해도 무방)
-			// Class.forName("org.postgresql.Driver");
+			if (DATA_SOURCE_LOCK.tryLock(CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) == false) {
+				throw new SQLException("PostgreSQL pool not ready");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 
-			// C#의 NpgsqlConnection 문자열을 그대로 JDBC로 옮긴 예시
-			// 실제로는 host/port/db/user/pass를 분리해서 관리하는 것이 좋습니다.
-			String url = "";
-			String user = "";
-			String password = "";
+			throw new SQLException("PostgreSQL pool not ready", e);
+		}
 
-			connection = DriverManager.getConnection(url, user, password);
-//			connection.setAutoCommit(true);
-		} catch (Exception e) {
-			MyPrint.printf(e);
+		try {
+			if (dataSource == null) {
+				dataSource = createDataSource();
+			}
+
+			return dataSource;
+		} finally {
+			DATA_SOURCE_LOCK.unlock();
+		}
+	}
+
+	private static HikariDataSource createDataSource() throws SQLException {
+		HikariConfig config = new HikariConfig();
+
+		config.setJdbcUrl(URL);
+		config.setUsername(USER);
+		config.setPassword(PASSWORD);
+
+		// 풀 옵션 (MySQL과 동일, 필요 시 조정)
+		config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+		config.setMinimumIdle(2);
+		config.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+		config.setIdleTimeout(600000);
+		config.setMaxLifetime(1800000);
+		config.setLeakDetectionThreshold(LEAK_DETECTION_THRESHOLD_MILLIS);
+
+		try {
+			// 첫 커넥션을 맺을 때까지 기다림 (연결 실패면 PoolInitializationException)
+			return new HikariDataSource(config);
+		} catch (RuntimeException e) {
+			throw new SQLException("PostgreSQL pool initialization failed", e);
+		}
+	}
+
+	/*
+	 * URL이 있고 맞는 JDBC 드라이버가 클래스패스에 있는지 (BackendInitializer가 시작 시 미리 초기화할지 판단).
+	 */
+	public static boolean isConfigured() {
+		if (URL.isEmpty() == true) {
+			return false;
+		}
+
+		try {
+			DriverManager.getDriver(URL);
+
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * 풀을 거치지 않는 전용 커넥션 (PostgreSQLListener처럼 계속 붙잡고 있는 용도, 풀 슬롯 / 누수 감지 대상이 아니도록).
+	 */
+	static Connection openDedicatedConnection() throws SQLException {
+		return DriverManager.getConnection(URL, USER, PASSWORD);
+	}
+
+	/*
+	 * 느린 쿼리의 EXPLAIN (SlowQueryLog 스레드에서 풀의 다른 커넥션으로 실행, 실행 계획 한 줄씩).
+	 */
+	private static String explain(String sql) throws SQLException {
+		try (Connection c = getDataSource().getConnection(); Statement stmt = c.createStatement()) {
+			stmt.setQueryTimeout(DEFAULT_QUERY_TIMEOUT_SECONDS);
+
+			try (ResultSet rs = stmt.executeQuery("EXPLAIN " + sql)) {
+				StringBuilder plan = new StringBuilder();
+
+				while (rs.next() == true) {
+					plan.append(plan.length() == 0 ? "" : "\n").append(rs.getString(1));
+				}
+
+				return plan.toString();
+			}
 		}
 	}
 
 	public boolean query(String sql) {
-		MyPrint.printf(sql);
+		SQL_LOG.printf(() -> sql);
 		boolean isErrored = false;
+		long startNanos = System.nanoTime();
 
+		Connection c = null;
 		Statement stmt = null;
 		ResultSet rs = null;
 
 		try {
-			ensureConnection();
-			stmt = connection.createStatement();
+			c = borrowConnection();
+			stmt = track(c.createStatement());
 			rs = stmt.executeQuery(sql);
 		} catch (Exception e) {
 			MyPrint.printf(e);
 			isErrored = true;
 		} finally {
+			currentStatement = null;
 			closeQuietly(rs);
 			closeQuietly(stmt);
+			releaseConnection(c);
 		}
 
+		SLOW_QUERY_LOG.record("postgresql", sql, System.nanoTime() - startNanos, PostgreSQL::explain);
+
 		return isErrored;
 	}
 
@@ -94,21 +241,23 @@ public class PostgreSQL implements AutoCloseable {
 	 * @param myClass       리플렉션에 사용할 T의 Class
 	 */
 	public <T extends PostgreSqlQueryResult> List<T> query(String sql, ResultHolder queryResult, Class<T> myClass) {
-		MyPrint.printf(sql);
+		SQL_LOG.printf(() -> sql);
 
 		List<T> results = new ArrayList<>();
+		Connection c = null;
 		ResultSet rs = null;
 		PreparedStatement stmt = null;
+		long startNanos = System.nanoTime();
 
 		try {
-			ensureConnection();
+			c = borrowConnection();
 
-			stmt = connection.prepareStatement(sql);
+			stmt = track(c.prepareStatement(sql));
 			rs = stmt.executeQuery();
 
 			ResultSetMetaData meta = rs.getMetaData();
 			int columnCount = meta.getColumnCount();
-			Field[] fields = myClass.getDeclaredFields();
+			Field[] fields = BulkUpsert.fieldsOf(myClass);
 
 			while (rs.next() == true) {
 				T result = myClass.getDeclaredConstructor().newInstance();
@@ -152,13 +301,118 @@ public class PostgreSQL implements AutoCloseable {
 				queryResult.value = Result.Error;
 			}
 		} finally {
+			currentStatement = null;
 			closeQuietly(rs);
 			closeQuietly(stmt);
+			releaseConnection(c);
 		}
 
+		SLOW_QUERY_LOG.record("postgresql", sql, System.nanoTime() - startNanos, PostgreSQL::explain);
+
 		return results;
 	}
 
+	/**
+	 * rows를 multi-row INSERT ... ON CONFLICT (keyColumns) DO UPDATE 로 upsert (행 클래스의 필드 = 컬럼).
+	 * 한 문장이 바인드 파라미터 한도(32767)와 MAX_UPSERT_STATEMENT_BYTES를 넘지 않도록 나눠서 실행.
+	 *
+	 * @param table      대상 테이블
+	 * @param rows       넣을 행
+	 * @param keyColumns ON CONFLICT 대상 컬럼 (유니크 인덱스 / PK)
+	 * @return 에러 여부
+	 */
+	public <T extends PostgreSqlQueryResult> boolean upsert(String table, List<T> rows, List<String> keyColumns) {
+		if (rows == null || rows.isEmpty() == true) {
+			return false;
+		}
+
+		Connection c = null;
+
+		try {
+			c = borrowConnection();
+
+			int statements = BulkUpsert.execute(c, BulkUpsert.Dialect.POSTGRESQL, table, rows, keyColumns, MAX_UPSERT_STATEMENT_BYTES, this::track);
+
+			SQL_LOG.printf(() -> "UPSERT " + table + " rows=" + rows.size() + " statements=" + statements);
+
+			return false;
+		} catch (SQLException e) {
+			MyPrint.printf(e);
+			queryErrorCode = e.getSQLState();
+		} catch (Exception e) {
+			MyPrint.printf(e);
+		} finally {
+			releaseConnection(c);
+		}
+
+		return true;
+	}
+
+	/**
+	 * query를 별도 스레드에서 실행 (이 인스턴스와 별개로 풀에서 커넥션을 빌리고 끝나면 반납, 타임아웃은 이 인스턴스 설정을 따름).
+	 * 리턴된 future를 cancel하면 실행 중인 쿼리도 Statement.cancel()로 서버에서 중단됨.
+	 * HTTP 요청이 끊기면 쿼리도 멈추도록 하려면 컨트롤러에서 DeferredResult의 onTimeout / onError에서 future.cancel(true) 호출.
+	 */
+	public <T extends PostgreSqlQueryResult> CompletableFuture<List<T>> queryAsync(String sql, ResultHolder queryResult, Class<T> myClass) {
+		PostgreSQL worker = new PostgreSQL(queryTimeoutSeconds);
+
+		CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> {
+			try {
+				return worker.query(sql, queryResult, myClass);
+			} finally {
+				worker.close();
+			}
+		}, ASYNC_EXECUTOR);
+
+		future.whenComplete((results, e) -> {
+			if (e instanceof CancellationException) {
+				worker.cancel();
+			}
+		});
+
+		return future;
+	}
+
+	/*
+	 * 이후 쿼리의 타임아웃 (초, 0이면 무제한). 넘으면 서버에 취소 요청을 보내고 SQLException (57014).
+	 */
+	public void setQueryTimeout(int seconds) {
+		queryTimeoutSeconds = Math.max(0, seconds);
+	}
+
+	/*
+	 * 다른 스레드에서 이 인스턴스의 쿼리를 취소 (실행 중인 쿼리는 Statement.cancel(), 이후 쿼리는 실행하지 않고 에러 처리).
+	 */
+	public void cancel() {
+		cancelled = true;
+
+		Statement stmt = currentStatement;
+
+		if (stmt != null) {
+			try {
+				stmt.cancel();
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	// 실행할 Statement에 타임아웃을 걸고 cancel() 대상으로 등록
+	private <S extends Statement> S track(S stmt) throws SQLException {
+		stmt.setQueryTimeout(queryTimeoutSeconds);
+		currentStatement = stmt;
+
+		// cancel()이 등록 직전에 호출된 경우
+		if (cancelled == true) {
+			currentStatement = null;
+			stmt.close();
+
+			throw new SQLException("Query cancelled");
+		}
+
+		return stmt;
+	}
+
 	private Field findFieldIgnoreCase(Field[] fields, String name) {
 		for (Field f : fields) {
 			if (f.getName().equalsIgnoreCase(name) == true) {
@@ -236,16 +490,18 @@ public class PostgreSQL implements AutoCloseable {
 
 	public void beginTransaction() {
 		try {
-			ensureConnection();
-
-			if (inTransaction == true) {
+			if (inTransaction == true && connection != null && connection.isClosed() == false) {
 				return;
 			}
 
+			close();
+
+			connection = getDataSource().getConnection();
 			connection.setAutoCommit(false);
 			inTransaction = true;
 		} catch (SQLException e) {
 			MyPrint.printf(e);
+			close();
 		}
 	}
 
@@ -303,6 +559,7 @@ public class PostgreSQL implements AutoCloseable {
 		}
 	}
 
+	// 이 인스턴스가 들고 있는 트랜잭션용 커넥션만 정리
 	@Override
 	public void close() {
 		if (connection != null) {
@@ -314,13 +571,39 @@ public class PostgreSQL implements AutoCloseable {
 				MyPrint.printf(e);
 			} finally {
 				connection = null;
+				inTransaction = false;
 			}
 		}
 	}
 
-	private void ensureConnection() throws SQLException {
-		if (connection == null || connection.isClosed() == true) {
-			init();
+	// 트랜잭션 중이면 트랜잭션 커넥션, 아니면 풀에서 하나 빌림 (releaseConnection으로 반납)
+	private Connection borrowConnection() throws SQLException {
+		if (inTransaction == true && connection != null) {
+			return connection;
+		}
+
+		return getDataSource().getConnection();
+	}
+
+	private void releaseConnection(Connection c) {
+		if (c != connection) {
+			closeQuietly(c);
+		}
+	}
+
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isEmpty() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			MyPrint.printf(e.getMessage());
+
+			return defaultValue;
 		}
 	}
 
@@ -0,0 +1,226 @@
+package com.chungho.snippet.common;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/*
+ * PostgreSQL LISTEN / NOTIFY 수신기.
+ * 캐시를 주기적으로 다시 읽는(polling) 대신, 데이터가 바뀔 때 NOTIFY 로 받은 키만 캐시에서 지우도록 하기 위한 용도.
+ *
+ *  PostgreSQLListener.getInstance().listen("user_changed", n -> cache.invalidate(n.getParameter()));
+ *  PostgreSQLListener.getInstance().onReconnect(cache::clear);   // 끊겨 있던 동안의 알림은 유실되므로 전체 무효화
+ *
+ * - 전용 커넥션 하나를 두고, 백그라운드 스레드가 getNotifications(timeout)으로 대기하면서 콜백을 순서대로 호출
+ * - 커넥션이 끊기면 백오프 후 다시 연결하고 등록된 채널을 모두 다시 LISTEN
+ * - 채널 이름은 따옴표 없는 식별자만 허용 (NOTIFY 쪽과 같이 소문자로 취급)
+ */
+public class PostgreSQLListener {
+
+	private static final Pattern CHANNEL_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,62}");
+	private static final int POLL_TIMEOUT_MILLIS = 500;
+	private static final long RECONNECT_BASE_DELAY_MILLIS = 1000;
+	private static final long RECONNECT_MAX_DELAY_MILLIS = 30_000;
+
+	private static volatile PostgreSQLListener instance;
+
+	private final Map<String, List<Consumer<PGNotification>>> callbacks = new ConcurrentHashMap<>();
+	private final List<Runnable> reconnectCallbacks = new CopyOnWriteArrayList<>();
+	// 리스너 스레드가 다음 루프에서 LISTEN 할 채널
+	private final Queue<String> pendingChannels = new ConcurrentLinkedQueue<>();
+
+	private Thread thread;
+	private volatile boolean running;
+
+	public static PostgreSQLListener getInstance() {
+		if (instance == null) {
+			synchronized (PostgreSQLListener.class) {
+				if (instance == null) {
+					instance = new PostgreSQLListener();
+				}
+			}
+		}
+
+		return instance;
+	}
+
+	/*
+	 * channel 알림을 받을 콜백 등록 (리스너가 안 떠 있으면 같이 시작).
+	 */
+	public void listen(String channel, Consumer<PGNotification> callback) {
+		if (CHANNEL_PATTERN.matcher(channel).matches() == false) {
+			throw new IllegalArgumentException("Invalid channel name: " + channel);
+		}
+
+		String name = channel.toLowerCase();
+
+		callbacks.computeIfAbsent(name, key -> {
+			pendingChannels.add(key);
+			return new CopyOnWriteArrayList<>();
+		}).add(callback);
+
+		start();
+	}
+
+	/*
+	 * 재연결 직후 호출 (끊긴 동안 놓친 알림이 있을 수 있으므로 캐시 전체 무효화 등).
+	 */
+	public void onReconnect(Runnable callback) {
+		reconnectCallbacks.add(callback);
+	}
+
+	public synchronized void start() {
+		if (running == true) {
+			return;
+		}
+
+		// stop() 직후라면 이전 스레드가 getNotifications 대기를 마치고 끝날 때까지 기다림 (두 스레드가 같이 돌지 않도록)
+		if (thread != null) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+
+		running = true;
+
+		// Java 17이라 가상 스레드 대신 데몬 스레드 하나 사용
+		thread = new Thread(this::run, "postgresql-listener");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public synchronized void stop() {
+		running = false;
+
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	// 커넥션은 리스너 스레드 안에서만 사용
+	private void run() {
+		long reconnectDelay = RECONNECT_BASE_DELAY_MILLIS;
+		boolean connectedBefore = false;
+		Connection connection = null;
+
+		while (running == true) {
+			try {
+				if (connection == null || connection.isClosed() == true) {
+					connection = connect();
+
+					if (connectedBefore == true) {
+						fireReconnect();
+					}
+
+					connectedBefore = true;
+					reconnectDelay = RECONNECT_BASE_DELAY_MILLIS;
+				}
+
+				listenPending(connection);
+
+				PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(POLL_TIMEOUT_MILLIS);
+
+				if (notifications != null) {
+					for (PGNotification notification : notifications) {
+						dispatch(notification);
+					}
+				}
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+				closeConnection(connection);
+				connection = null;
+
+				try {
+					Thread.sleep(reconnectDelay);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+
+				reconnectDelay = Math.min(RECONNECT_MAX_DELAY_MILLIS, reconnectDelay * 2);
+			}
+		}
+
+		closeConnection(connection);
+	}
+
+	private Connection connect() throws SQLException {
+		Connection connection = PostgreSQL.openDedicatedConnection();
+
+		try {
+			connection.setAutoCommit(true);
+		} catch (SQLException e) {
+			closeConnection(connection);
+			throw e;
+		}
+
+		// 새 커넥션이므로 등록된 채널을 모두 다시 LISTEN.
+		// 큐는 비우지 않음: listen()에서 computeIfAbsent가 끝나기 전(맵에 아직 안 보이는) 채널이 큐에만 들어 있을 수 있음 (중복 LISTEN은 무해)
+		pendingChannels.addAll(callbacks.keySet());
+
+		return connection;
+	}
+
+	private void listenPending(Connection connection) throws SQLException {
+		String channel;
+
+		while ((channel = pendingChannels.peek()) != null) {
+			try (Statement stmt = connection.createStatement()) {
+				// 채널 이름은 CHANNEL_PATTERN으로 검증된 식별자
+				stmt.execute("LISTEN " + channel);
+			}
+
+			pendingChannels.poll();
+		}
+	}
+
+	private void dispatch(PGNotification notification) {
+		List<Consumer<PGNotification>> list = callbacks.get(notification.getName());
+
+		if (list == null) {
+			return;
+		}
+
+		for (Consumer<PGNotification> callback : list) {
+			try {
+				callback.accept(notification);
+			} catch (Exception e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	private void fireReconnect() {
+		for (Runnable callback : reconnectCallbacks) {
+			try {
+				callback.run();
+			} catch (Exception e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	private void closeConnection(Connection connection) {
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.chungho.snippet.common;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 조회 결과 로컬 캐시 (코드 테이블처럼 작고 자주 읽는 테이블용).
+ * - 키: 결과 클래스 + SQL, 값: 불변 리스트 (복사 없이 그대로 공유하므로 꺼낸 행 객체도 수정하면 안 됨)
+ * - 항목마다 TTL, 전체 개수가 maxEntries를 넘으면 가장 오래 안 쓴 항목부터 제거 (LRU)
+ * - 항목마다 의존 테이블 태그를 달아 두고, 그 테이블에 쓰기가 일어나면 태그된 항목을 모두 제거
+ * - 조회 도중에 쓰기가 끼어들면 (테이블 버전이 바뀌면) 그 결과는 캐시에 넣지 않음
+ */
+public class QueryResultCache {
+
+	private static class Entry {
+		final List<?> rows;
+		final long expiresAtNanos;
+		final String[] tables;
+
+		Entry(List<?> rows, long expiresAtNanos, String[] tables) {
+			this.rows = rows;
+			this.expiresAtNanos = expiresAtNanos;
+			this.tables = tables;
+		}
+	}
+
+	private final int maxEntries;
+	// 접근 순서 LinkedHashMap (LRU)
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, Set<String>> keysByTable = new HashMap<>();
+	// 테이블별 쓰기 횟수 (+ clear() 횟수), 조회 전후 비교용
+	private final Map<String, Long> tableVersions = new HashMap<>();
+	private long clearVersion;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public QueryResultCache(int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+	}
+
+	public static String key(String sql, Class<?> type) {
+		return type.getName() + '\n' + sql;
+	}
+
+	/**
+	 * @return 캐시된 불변 리스트, 없거나 만료되었으면 null
+	 */
+	public synchronized List<?> get(String key) {
+		Entry entry = entries.get(key);
+
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+
+		if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+			removeEntry(key);
+			misses.increment();
+
+			return null;
+		}
+
+		hits.increment();
+
+		return entry.rows;
+	}
+
+	/*
+	 * 조회 전에 받아 두고 put에 넘기는 값 (tables 중 하나라도 쓰기가 있으면 달라짐).
+	 */
+	public synchronized long version(String[] tables) {
+		long version = clearVersion;
+
+		for (String table : tables) {
+			version += tableVersions.getOrDefault(normalize(table), 0L);
+		}
+
+		return version;
+	}
+
+	/**
+	 * @param rows          캐시할 결과 (불변 리스트로 복사해서 저장)
+	 * @param versionBefore 조회 전에 version(tables)로 받은 값
+	 * @return 캐시에 넣은 불변 리스트 (조회 도중 쓰기가 있었으면 저장하지 않고 불변 리스트만 리턴)
+	 */
+	public synchronized <T> List<T> put(String key, List<T> rows, long ttlMillis, String[] tables, long versionBefore) {
+		List<T> immutable = List.copyOf(rows);
+
+		if (ttlMillis <= 0 || version(tables) != versionBefore) {
+			return immutable;
+		}
+
+		String[] normalized = new String[tables.length];
+
+		for (int i = 0; i < tables.length; i++) {
+			normalized[i] = normalize(tables[i]);
+		}
+
+		removeEntry(key);
+		entries.put(key, new Entry(immutable, System.nanoTime() + ttlMillis * 1_000_000L, normalized));
+
+		for (String table : normalized) {
+			keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+		}
+
+		// LRU: 가장 오래 안 쓴 항목부터 제거
+		Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+
+		while (entries.size() > maxEntries && eldest.hasNext() == true) {
+			Map.Entry<String, Entry> item = eldest.next();
+			eldest.remove();
+			unlinkTables(item.getKey(), item.getValue());
+			evictions.increment();
+		}
+
+		return immutable;
+	}
+
+	/*
+	 * table에 쓰기가 일어났을 때 호출 (태그된 항목 제거 + 진행 중인 조회 결과가 캐시에 들어가지 않도록 버전 증가).
+	 */
+	public synchronized void invalidateTable(String table) {
+		String name = normalize(table);
+
+		tableVersions.merge(name, 1L, Long::sum);
+
+		Set<String> keys = keysByTable.remove(name);
+
+		if (keys == null) {
+			return;
+		}
+
+		for (String key : keys) {
+			if (entries.containsKey(key) == true) {
+				removeEntry(key);
+				invalidations.increment();
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		clearVersion++;
+		invalidations.add(entries.size());
+		entries.clear();
+		keysByTable.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public Map<String, Long> getStats() {
+		Map<String, Long> stats = new LinkedHashMap<>();
+		stats.put("entries", (long) size());
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		stats.put("evictions", evictions.sum());
+		stats.put("invalidations", invalidations.sum());
+
+		return stats;
+	}
+
+	private void removeEntry(String key) {
+		Entry entry = entries.remove(key);
+
+		if (entry != null) {
+			unlinkTables(key, entry);
+		}
+	}
+
+	private void unlinkTables(String key, Entry entry) {
+		for (String table : entry.tables) {
+			Set<String> keys = keysByTable.get(table);
+
+			if (keys != null && keys.remove(key) == true && keys.isEmpty() == true) {
+				keysByTable.remove(table);
+			}
+		}
+	}
+
+	private static String normalize(String table) {
+		String name = table.replace("`", "").toLowerCase();
+		int dot = name.lastIndexOf('.');
+
+		return dot >= 0 ? name.substring(dot + 1) : name;
+	}
+}
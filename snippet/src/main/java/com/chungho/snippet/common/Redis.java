@@ -12,11 +12,35 @@ public class Redis {
 		eu_central_1,
 	}
 
-	private static JedisPool jedisPool;
+	private static volatile JedisPool jedisPool;
 	private static DbNumber dbNum; // Profile.RedisDbNumber 대응 (사용 여부는 선택)
 
 	// 생성자에서 한 번만 초기화 (스레드 세이프하게)
 	public Redis() {
+		getPool();
+	}
+
+	/*
+	 * 풀을 만들고 PING으로 연결 확인. 앱 시작 시 BackendInitializer가 다른 백엔드와 병렬로 호출.
+	 * 연결되지 않으면 JedisConnectionException.
+	 */
+	public static void initialize() {
+		try (Jedis jedis = getPool().getResource()) {
+			jedis.ping();
+		}
+	}
+
+	/*
+	 * redis 환경변수가 있는지 (없으면 localhost:6379로 붙는 개발용 기본값이므로 BackendInitializer가 시작 시 미리 초기화하지 않음).
+	 */
+	public static boolean isConfigured() {
+		String redisEnv = System.getenv("redis");
+
+		return redisEnv != null && redisEnv.isEmpty() == false;
+	}
+
+	// static 메서드에서도 풀이 없으면 처음 쓸 때 만듦
+	private static JedisPool getPool() {
 		if (jedisPool == null) {
 			synchronized (Redis.class) {
 				if (jedisPool == null) {
@@ -24,9 +48,11 @@ public class Redis {
 				}
 			}
 		}
+
+		return jedisPool;
 	}
 
-	private void init() {
+	private static void init() {
 		String redisEnv = System.getenv("redis");  // 예: "localhost:6379"
 
 		if (redisEnv == null || redisEnv.isEmpty() == true) {
@@ -53,26 +79,43 @@ public class Redis {
 		JedisPoolConfig config = new JedisPoolConfig();
 
 		// password가 없다는 가정 (있다면 JedisPool 생성자에 password 추가 필요)
-		jedisPool = new JedisPool(config, host, port, Protocol.DEFAULT_TIMEOUT, ssl);
 		dbNum = DbNumber.ap_northeast_2;
+		jedisPool = new JedisPool(config, host, port, Protocol.DEFAULT_TIMEOUT, ssl);
 	}
 
 	public static void setValue(int dbNum, String key, String value) {
-		try (Jedis jedis = jedisPool.getResource()) {
+		try (Jedis jedis = getPool().getResource()) {
 			jedis.select(dbNum);
 			jedis.set(key, value);
 		}
 	}
 
+	public static void setValue(int dbNum, String key, String value, long ttlSeconds) {
+		try (Jedis jedis = getPool().getResource()) {
+			jedis.select(dbNum);
+			jedis.setex(key, ttlSeconds, value);
+		}
+	}
+
 	public static String getValue(int dbNum, String key) {
-		try (Jedis jedis = jedisPool.getResource()) {
+		try (Jedis jedis = getPool().getResource()) {
 			jedis.select(dbNum);
 			return jedis.get(key);
 		}
 	}
 
+	/*
+	 * 남은 만료 시간 (ms). 키가 없으면 -2, 만료 시간이 없으면 -1.
+	 */
+	public static long getTtlMillis(int dbNum, String key) {
+		try (Jedis jedis = getPool().getResource()) {
+			jedis.select(dbNum);
+			return jedis.pttl(key);
+		}
+	}
+
 	public static List<String> getKeys(int dbNum) {
-		try (Jedis jedis = jedisPool.getResource()) {
+		try (Jedis jedis = getPool().getResource()) {
 			jedis.select(dbNum);
 
 			Set<String> keys = jedis.keys("*");
@@ -82,7 +125,7 @@ public class Redis {
 	}
 
 	public static boolean deleteKey(int dbNum, String key) {
-		try (Jedis jedis = jedisPool.getResource()) {
+		try (Jedis jedis = getPool().getResource()) {
 			jedis.select(dbNum);
 			long deleted = jedis.del(key);
 
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sesv2.SesV2AsyncClient;
+import software.amazon.awssdk.services.sesv2.SesV2AsyncClientBuilder;
 import software.amazon.awssdk.services.sesv2.SesV2Client;
+import software.amazon.awssdk.services.sesv2.SesV2ClientBuilder;
 import software.amazon.awssdk.services.sesv2.model.AlreadyExistsException;
 import software.amazon.awssdk.services.sesv2.model.BadRequestException;
 import software.amazon.awssdk.services.sesv2.model.BulkEmailContent;
@@ -17,24 +20,54 @@ import software.amazon.awssdk.services.sesv2.model.CreateEmailTemplateResponse;
 import software.amazon.awssdk.services.sesv2.model.DeleteEmailTemplateRequest;
 import software.amazon.awssdk.services.sesv2.model.DeleteEmailTemplateResponse;
 import software.amazon.awssdk.services.sesv2.model.EmailTemplateContent;
-import software.amazon.awssdk.services.sesv2.model.EmailTemplateMetadata;
-import software.amazon.awssdk.services.sesv2.model.GetEmailTemplateRequest;
-import software.amazon.awssdk.services.sesv2.model.GetEmailTemplateResponse;
-import software.amazon.awssdk.services.sesv2.model.ListEmailTemplatesRequest;
-import software.amazon.awssdk.services.sesv2.model.ListEmailTemplatesResponse;
 import software.amazon.awssdk.services.sesv2.model.ReplacementEmailContent;
 import software.amazon.awssdk.services.sesv2.model.ReplacementTemplate;
 import software.amazon.awssdk.services.sesv2.model.SendBulkEmailRequest;
 import software.amazon.awssdk.services.sesv2.model.SendBulkEmailResponse;
-import software.amazon.awssdk.services.sesv2.model.Template;
 import software.amazon.awssdk.services.sesv2.model.Destination;
 import software.amazon.awssdk.services.sesv2.model.SesV2Exception;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SES {
 
-	private SesV2Client sesClient;
+	// SendBulkEmail 한 번에 넣을 수 있는 최대 수신자 수
+	private static final int MAX_BULK_ENTRIES = 50;
+	// 동시에 진행할 수 있는 SendBulkEmail 요청 수 (기본값)
+	private static final int MAX_IN_FLIGHT_REQUESTS = 8;
+	// 쓰로틀링 / 일시적 실패 수신자의 최대 시도 횟수와 재시도 대기 시간
+	private static final int MAX_SEND_ATTEMPTS = 5;
+	private static final long RETRY_BASE_DELAY_MILLIS = 200;
+	private static final long RETRY_MAX_DELAY_MILLIS = 10_000;
+
+	// 계정 단위 발송 한도이므로 앱 전체에서 공유
+	private static final SESRateLimiter RATE_LIMITER = new SESRateLimiter();
+	private static final SESTemplateCache TEMPLATE_CACHE = new SESTemplateCache();
+	private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "ses-retry");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// 부하 테스트 등에서 조정 가능한 묶음 크기 / 동시 요청 수
+	private static volatile int bulkBatchSize = MAX_BULK_ENTRIES;
+	private static volatile int maxInFlightRequests = MAX_IN_FLIGHT_REQUESTS;
+	// 로컬 스텁 서버 등 다른 엔드포인트로 보낼 때 (환경변수 SES_ENDPOINT 또는 setEndpointOverride)
+	private static volatile String endpointOverride = System.getenv("SES_ENDPOINT");
+
+	private static volatile SesV2Client sesClient;
+	private static volatile SesV2AsyncClient sesAsyncClient;
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
 	public enum Result
@@ -44,27 +77,52 @@ public class SES {
 		AlreadyExist,
 	}
 
+	// 생성자에서 한 번만 초기화 (스레드 세이프하게)
 	public SES() {
 		if (sesClient == null) {
-			init();
+			synchronized (SES.class) {
+				if (sesClient == null) {
+					init();
+				}
+			}
 		}
 	}
 
-	private void init() {
+	private static void init() {
+		SesV2AsyncClientBuilder asyncBuilder = SesV2AsyncClient.builder().region(Region.of("Region"));
+		SesV2ClientBuilder syncBuilder = SesV2Client.builder().region(Region.of("Region"));
+
 		if (!Objects.equals("AccessKeyId", "")) {
 			AwsBasicCredentials creds = AwsBasicCredentials.create("AccessKeyId", "Secret");
 
-			sesClient = SesV2Client
-					.builder()
-					.region(Region.of("Region"))
-					.credentialsProvider(StaticCredentialsProvider.create(creds))
-					.build();
-		} else {
-			sesClient = SesV2Client
-					.builder()
-					.region(Region.of("Region"))
-					.build();
+			asyncBuilder.credentialsProvider(StaticCredentialsProvider.create(creds));
+			syncBuilder.credentialsProvider(StaticCredentialsProvider.create(creds));
+		}
+
+		if (endpointOverride != null && endpointOverride.isEmpty() == false) {
+			asyncBuilder.endpointOverride(URI.create(endpointOverride));
+			syncBuilder.endpointOverride(URI.create(endpointOverride));
 		}
+
+		sesAsyncClient = asyncBuilder.build();
+		sesClient = syncBuilder.build();
+
+		TEMPLATE_CACHE.start(sesClient);
+	}
+
+	/*
+	 * 첫 new SES() 전에 호출해야 반영됨.
+	 */
+	public static void setEndpointOverride(String endpoint) {
+		endpointOverride = endpoint;
+	}
+
+	public static void setBulkBatchSize(int size) {
+		bulkBatchSize = Math.max(1, Math.min(MAX_BULK_ENTRIES, size));
+	}
+
+	public static void setMaxInFlightRequests(int count) {
+		maxInFlightRequests = Math.max(1, count);
 	}
 
 	/**
@@ -96,6 +154,7 @@ public class SES {
 			if (response.sdkHttpResponse().isSuccessful() == true) {
 				String requestId = response.responseMetadata().requestId();
 				MyPrint.printf(requestId);
+				TEMPLATE_CACHE.put(templateName, new TemplateContentResult(subject, text));
 
 				if (resultHolder != null) {
 					resultHolder.value = Result.OK;
@@ -148,6 +207,7 @@ public class SES {
 			if (response.sdkHttpResponse().isSuccessful() == true) {
 				String requestId = response.responseMetadata().requestId();
 				MyPrint.printf(requestId);
+				TEMPLATE_CACHE.put(templateName, new TemplateContentResult(subject, text));
 
 				if (resultHolder != null) {
 					resultHolder.value = Result.OK;
@@ -180,6 +240,7 @@ public class SES {
 			if (response.sdkHttpResponse().isSuccessful() == true) {
 				String requestId = response.responseMetadata().requestId();
 				MyPrint.printf(requestId);
+				TEMPLATE_CACHE.remove(templateName);
 
 				if (resultHolder != null) {
 					resultHolder.value = Result.OK;
@@ -198,91 +259,85 @@ public class SES {
 		return false;
 	}
 
+	/**
+	 * 템플릿 캐시가 채워져 있으면 캐시에서 리턴 (백그라운드에서 주기적으로 갱신됨).
+	 */
 	public List<String> getEmailTemplateNames(ResultHolder resultHolder) {
-		List<String> resultList = new ArrayList<>();
-
 		if (resultHolder != null && resultHolder.value == Result.Error) {
-			return resultList;
+			return new ArrayList<>();
 		}
 
-		String nextToken = null;
+		List<String> cachedNames = TEMPLATE_CACHE.getNames();
 
-		do {
-			ListEmailTemplatesRequest.Builder requestBuilder = ListEmailTemplatesRequest.builder().pageSize(50);
+		if (cachedNames != null) {
+			return cachedNames;
+		}
 
-			if (nextToken != null && nextToken.isEmpty() == false) {
-				requestBuilder.nextToken(nextToken);
-			}
+		try {
+			return TEMPLATE_CACHE.loadNames();
+		} catch (SesV2Exception ex) {
+			MyPrint.printf(ex.awsErrorDetails().errorMessage());
+		} catch (Exception ex) {
+			MyPrint.printf(ex.getMessage());
+		}
 
-			try {
-				ListEmailTemplatesResponse response = sesClient.listEmailTemplates(requestBuilder.build());
+		if (resultHolder != null) {
+			resultHolder.value = Result.Error;
+		}
 
-				if (response.sdkHttpResponse().isSuccessful() == false || response.templatesMetadata() == null) {
-					if (resultHolder != null) {
-						resultHolder.value = Result.Error;
-					}
+		return new ArrayList<>();
+	}
 
-					return resultList;
-				}
+	public TemplateContentResult getEmailTemplate(String templateName, ResultHolder resultHolder) {
+		TemplateContentResult cached = TEMPLATE_CACHE.getContent(templateName);
 
-				for (EmailTemplateMetadata meta : response.templatesMetadata()) {
-					resultList.add(meta.templateName());
-				}
+		if (cached != null) {
+			return cached;
+		}
 
-				nextToken = response.nextToken();
-			} catch (SesV2Exception ex) {
-				MyPrint.printf(ex.awsErrorDetails().errorMessage());
+		try {
+			TemplateContentResult content = SESTemplateCache.fetch(sesClient, templateName);
 
-				if (resultHolder != null) {
-					resultHolder.value = Result.Error;
-				}
+			if (content != null) {
+				TEMPLATE_CACHE.put(templateName, content);
 
-				return resultList;
+				return content;
 			}
+		} catch (SesV2Exception ex) {
+			MyPrint.printf(ex.awsErrorDetails().errorMessage());
+		} catch (Exception ex) {
+			MyPrint.printf(ex.getMessage());
+		}
 
-		} while (nextToken != null && nextToken.isEmpty() == false);
+		if (resultHolder != null) {
+			resultHolder.value = Result.Error;
+		}
 
-		return resultList;
+		return new TemplateContentResult("", "");
 	}
 
-	public TemplateContentResult getEmailTemplate(String templateName, ResultHolder resultHolder) {
-		GetEmailTemplateRequest request = GetEmailTemplateRequest
-				.builder()
-				.templateName(templateName)
-				.build();
-
-		try {
-			GetEmailTemplateResponse response = sesClient.getEmailTemplate(request);
-
-			if (response.sdkHttpResponse().isSuccessful() == false || response.templateContent() == null) {
-				if (resultHolder != null) {
-					resultHolder.value = Result.Error;
-				}
-
-				return new TemplateContentResult("", "");
-			}
-
-			EmailTemplateContent content = response.templateContent();
+	/**
+	 * 수신자를 SendBulkEmail 제한(50명) 단위로 나눠 비동기로 동시에 보내고, 결과를 합쳐서 리턴.
+	 * 동시에 진행 중인 요청 수는 maxInFlightRequests로, 초당 발송 수는 계정 한도(SESRateLimiter)로 제한.
+	 * 쓰로틀링 / 일시적 실패 수신자는 백오프 후 재시도하고, 최종 실패한 수신자는 false로 기록.
+	 */
+	public Map<String, Boolean> sendEmail(String from, String templateName, List<Recipient> recipients, String replyToAddress) {
+		Map<String, Boolean> result = new ConcurrentHashMap<>();
 
-			if (content.text() != null && content.text().equals(" ") == false) {
-				return new TemplateContentResult(content.subject(), content.text());
-			} else {
-				return new TemplateContentResult(content.subject(), content.html());
-			}
-		} catch (SesV2Exception ex) {
-			MyPrint.printf(ex.awsErrorDetails().errorMessage());
+		// 없는 템플릿이면 SES까지 가지 않고 전원 실패 처리
+		if (TEMPLATE_CACHE.exists(templateName) == false) {
+			MyPrint.printf("SES template not found: " + templateName);
 
-			if (resultHolder != null) {
-				resultHolder.value = Result.Error;
+			for (Recipient item : recipients) {
+				result.put(item.email, Boolean.FALSE);
 			}
 
-			return new TemplateContentResult("", "");
+			return result;
 		}
-	}
 
-	public Map<String, Boolean> sendEmail(String from, String templateName, List<Recipient> recipients, String replyToAddress) {
-		Map<String, Boolean> result = new HashMap<>();
 		List<BulkEmailEntry> entries = new ArrayList<>();
+		// entries와 같은 순서의 수신자 (JSON 변환에 실패한 수신자는 빠지므로 recipients와 인덱스가 다를 수 있음)
+		List<Recipient> entryRecipients = new ArrayList<>();
 
 		for (Recipient item : recipients) {
 			Destination destination = Destination
@@ -293,11 +348,8 @@ public class SES {
 			String replacementJson;
 
 			try {
-				Map<String, Object> replacementMap = new HashMap<>();
-
-				replacementMap.put("name", item.name);
-				replacementJson = objectMapper.writeValueAsString(replacementMap);
-			} catch (JsonProcessingException e) {
+				replacementJson = SESTemplateData.encode(item);
+			} catch (IOException e) {
 				MyPrint.printf(e.getMessage());
 
 				continue;
@@ -320,72 +372,176 @@ public class SES {
 					.build();
 
 			entries.add(entry);
+			entryRecipients.add(item);
 		}
 
-		String defaultTemplateData;
-		try {
-			Map<String, Object> defaultMap = new HashMap<>();
+		BulkEmailContent defaultContent = SESTemplateData.defaultContent(templateName);
 
-			defaultMap.put("brand", " ");
-			defaultMap.put("price", 0);
-			defaultTemplateData = objectMapper.writeValueAsString(defaultMap);
-		} catch (JsonProcessingException e) {
-			MyPrint.printf(e.getMessage());
+		RATE_LIMITER.initialize(sesClient);
 
-			return result;
+		// 보낼 묶음 큐: 처음에는 50명 단위 묶음, 이후에는 재시도 대상 묶음이 백오프 후 다시 들어옴
+		LinkedBlockingQueue<SendBatch> readyBatches = new LinkedBlockingQueue<>();
+		AtomicInteger outstandingBatches = new AtomicInteger();
+		Semaphore inFlight = new Semaphore(maxInFlightRequests);
+		int batchSize = bulkBatchSize;
+
+		for (int start = 0; start < entries.size(); start += batchSize) {
+			List<Integer> indexes = new ArrayList<>();
+
+			for (int i = start; i < Math.min(start + batchSize, entries.size()); i++) {
+				indexes.add(i);
+			}
+
+			outstandingBatches.incrementAndGet();
+			readyBatches.add(new SendBatch(indexes, 1));
 		}
 
-		Template template = Template
-				.builder()
-				.templateName(templateName)
-				.templateData(defaultTemplateData)
-				.build();
+		try {
+			while (outstandingBatches.get() > 0) {
+				SendBatch batch = readyBatches.poll(100, TimeUnit.MILLISECONDS);
 
-		BulkEmailContent defaultContent = BulkEmailContent
-				.builder()
-				.template(template)
-				.build();
+				if (batch == null) {
+					continue;
+				}
 
-		SendBulkEmailRequest request = SendBulkEmailRequest
-				.builder()
-				.fromEmailAddress(from)
-				.replyToAddresses(replyToAddress)
-				.defaultContent(defaultContent)
-				.bulkEmailEntries(entries)
-				.build();
+				List<BulkEmailEntry> batchEntries = new ArrayList<>(batch.indexes.size());
+
+				for (int index : batch.indexes) {
+					batchEntries.add(entries.get(index));
+				}
 
+				SendBulkEmailRequest request = SendBulkEmailRequest
+						.builder()
+						.fromEmailAddress(from)
+						.replyToAddresses(replyToAddress)
+						.defaultContent(defaultContent)
+						.bulkEmailEntries(batchEntries)
+						.build();
+
+				inFlight.acquire();
+				RATE_LIMITER.acquire(batchEntries.size());
+
+				try {
+					sesAsyncClient
+							.sendBulkEmail(request)
+							.whenComplete((response, throwable) -> {
+								inFlight.release();
+
+								List<Integer> retryIndexes = throwable != null
+										? handleSendError(throwable, batch, entryRecipients, result)
+										: mergeEntryResults(response, batch, entryRecipients, result);
+
+								if (retryIndexes.isEmpty() == false) {
+									outstandingBatches.incrementAndGet();
+
+									RETRY_SCHEDULER.schedule(
+											() -> readyBatches.add(new SendBatch(retryIndexes, batch.attempt + 1)),
+											retryDelayMillis(batch.attempt),
+											TimeUnit.MILLISECONDS
+									);
+								}
+
+								outstandingBatches.decrementAndGet();
+							});
+				} catch (Exception e) {
+					// 요청 생성 단계에서 바로 실패한 경우 (콜백이 호출되지 않음)
+					inFlight.release();
+					handleSendError(e, new SendBatch(batch.indexes, MAX_SEND_ATTEMPTS), entryRecipients, result);
+					outstandingBatches.decrementAndGet();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			MyPrint.printf(e.getMessage());
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return 재시도할 entries 인덱스
+	 */
+	private List<Integer> mergeEntryResults(SendBulkEmailResponse response, SendBatch batch, List<Recipient> entryRecipients, Map<String, Boolean> result) {
 		try {
-			SendBulkEmailResponse response = sesClient.sendBulkEmail(request);
+			MyPrint.printf(objectMapper.writeValueAsString(response.bulkEmailEntryResults()));
+		} catch (JsonProcessingException e) {
+			MyPrint.printf(e.getMessage());
+		}
 
-			try {
-				MyPrint.printf(objectMapper.writeValueAsString(response.bulkEmailEntryResults()));
-			} catch (JsonProcessingException e) {
-				MyPrint.printf(e.getMessage());
+		List<BulkEmailEntryResult> entryResults = response.bulkEmailEntryResults();
+		List<Integer> retryIndexes = new ArrayList<>();
+		boolean throttled = false;
+		int position = 0;
+
+		for (int index : batch.indexes) {
+			Recipient item = entryRecipients.get(index);
+			BulkEmailStatus status = position < entryResults.size() ? entryResults.get(position).status() : null;
+
+			if (status == BulkEmailStatus.SUCCESS) {
+				result.put(item.email, Boolean.TRUE);
+			} else if ((status == BulkEmailStatus.ACCOUNT_THROTTLED || status == BulkEmailStatus.TRANSIENT_FAILURE) && batch.attempt < MAX_SEND_ATTEMPTS) {
+				throttled |= status == BulkEmailStatus.ACCOUNT_THROTTLED;
+				retryIndexes.add(index);
+			} else {
+				result.put(item.email, Boolean.FALSE);
 			}
 
-			List<BulkEmailEntryResult> entryResults = response.bulkEmailEntryResults();
-			int index = 0;
+			position++;
+		}
 
-			for (Recipient item : recipients) {
-				if (index < entryResults.size()) {
-					BulkEmailEntryResult entryResult = entryResults.get(index);
+		if (throttled == true) {
+			RATE_LIMITER.onThrottled();
+		} else {
+			RATE_LIMITER.onSuccess();
+		}
 
-					if (entryResult.status() == BulkEmailStatus.SUCCESS) {
-						result.put(item.email, Boolean.TRUE);
-					}
-				}
+		return retryIndexes;
+	}
 
-				index++;
+	/**
+	 * @return 재시도할 entries 인덱스 (쓰로틀링 / 서버 오류면 묶음 전체)
+	 */
+	private List<Integer> handleSendError(Throwable throwable, SendBatch batch, List<Recipient> entryRecipients, Map<String, Boolean> result) {
+		printSendError(throwable);
+
+		Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+		boolean retryable = false;
+
+		if (cause instanceof SesV2Exception ex) {
+			if (ex.isThrottlingException() == true || ex.statusCode() == 429) {
+				RATE_LIMITER.onThrottled();
+				retryable = true;
+			} else if (ex.statusCode() >= 500) {
+				retryable = true;
 			}
-		} catch (SesV2Exception ex) {
-			MyPrint.printf(ex.awsErrorDetails().errorMessage());
-			return result;
-		} catch (Exception ex) {
-			MyPrint.printf(ex.getMessage());
-			return result;
 		}
 
-		return result;
+		if (retryable == true && batch.attempt < MAX_SEND_ATTEMPTS) {
+			return batch.indexes;
+		}
+
+		for (int index : batch.indexes) {
+			result.put(entryRecipients.get(index).email, Boolean.FALSE);
+		}
+
+		return Collections.emptyList();
+	}
+
+	// 지수 백오프 + jitter
+	private static long retryDelayMillis(int attempt) {
+		long delay = Math.min(RETRY_MAX_DELAY_MILLIS, RETRY_BASE_DELAY_MILLIS << (attempt - 1));
+
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	private void printSendError(Throwable throwable) {
+		Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+		if (cause instanceof SesV2Exception ex && ex.awsErrorDetails() != null) {
+			MyPrint.printf(ex.awsErrorDetails().errorMessage());
+		} else {
+			MyPrint.printf(cause.getMessage());
+		}
 	}
 
 	public static class ResultHolder {
@@ -402,13 +558,30 @@ public class SES {
 		}
 	}
 
+	private static class SendBatch {
+		final List<Integer> indexes;
+		final int attempt;
+
+		SendBatch(List<Integer> indexes, int attempt) {
+			this.indexes = indexes;
+			this.attempt = attempt;
+		}
+	}
+
 	public static class Recipient {
 		public final String email;
 		public final String name;
+		// 템플릿 치환 데이터에 name 외에 추가로 넣을 값 (없으면 null, "name" 키는 무시되고 name 필드가 쓰임)
+		public final Map<String, Object> fields;
 
 		public Recipient(String email, String name) {
+			this(email, name, null);
+		}
+
+		public Recipient(String email, String name, Map<String, Object> fields) {
 			this.email = email;
 			this.name = name;
+			this.fields = fields;
 		}
 	}
 }
@@ -0,0 +1,481 @@
+package com.chungho.snippet.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * SES 발송 outbox.
+ * 요청 처리 스레드는 enqueue()로 로컬 append-only 로그에 기록만 하고 바로 리턴하고,
+ * 백그라운드 dispatcher가 같은 (발신자, 템플릿, replyTo) 끼리 묶어 SES.sendEmail로 보낸 뒤 결과를 로그에 남김.
+ * 재시작 시 로그를 다시 읽어 완료 기록이 없는 항목부터 이어서 보냄.
+ * 완료 기록이 SES_OUTBOX_COMPACT_THRESHOLD(기본 10000)개 쌓일 때마다 미완료 항목만 남기도록 로그를 압축함.
+ * SES 호출 자체가 실패하면 항목별로 지수 백오프(SES_OUTBOX_RETRY_BASE_MS → SES_OUTBOX_RETRY_MAX_MS) 후 다시 보내고,
+ * SES_OUTBOX_MAX_ATTEMPTS번 실패한 항목은 dead 기록을 남기고 포기함 (시도 횟수는 메모리에만 있으므로 재시작하면 처음부터).
+ *
+ * 전달 보장은 at-least-once (중복 발송 가능):
+ *  - SES 발송이 끝난 뒤 완료 기록을 쓰기 전에 프로세스가 죽으면, 재시작 후 같은 항목 전체를 다시 보냄
+ *  - stop()에서 dispatcher가 5초 안에 끝나지 않은 경우도 마찬가지
+ *  - 한 항목에서 일부 수신자만 실패해도 완료로 기록하므로, 실패한 수신자는 재시도하지 않음 (done.failed에 남음)
+ *  수신자 쪽에서 중복이 문제가 되는 메일이라면 템플릿 데이터에 outbox 항목 ID를 넣어 구분하는 식으로 처리해야 함.
+ *
+ * 로그 포맷 (한 줄에 JSON 하나)
+ *  {"type":"enqueue","id":...,"from":...,"templateName":...,"replyTo":...,"recipients":[{"email":...,"name":...,"fields":{...}}]}
+ *  {"type":"done","id":...,"sent":n,"failed":[...]}
+ *  {"type":"dead","id":...,"sent":0,"failed":[...]}     // 재시도 횟수를 다 쓴 항목 (완료와 같이 취급)
+ */
+public class SESOutbox {
+
+	private static final String TYPE_ENQUEUE = "enqueue";
+	private static final String TYPE_DONE = "done";
+	private static final String TYPE_DEAD = "dead";
+
+	// 한 번에 묶어서 처리할 최대 outbox 항목 수
+	private static final int MAX_DRAIN_ENTRIES = 1000;
+
+	// 완료 기록이 이만큼 쌓이면 로그 압축
+	private static final long COMPACT_THRESHOLD = envLong("SES_OUTBOX_COMPACT_THRESHOLD", 10_000);
+
+	// 발송 실패 시 재시도 간격 / 최대 시도 횟수
+	private static final long RETRY_BASE_DELAY_MILLIS = envLong("SES_OUTBOX_RETRY_BASE_MS", 1000);
+	private static final long RETRY_MAX_DELAY_MILLIS = envLong("SES_OUTBOX_RETRY_MAX_MS", 60_000);
+	private static final long MAX_ATTEMPTS = envLong("SES_OUTBOX_MAX_ATTEMPTS", 10);
+
+	private static volatile SESOutbox instance;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Path logPath;
+	private final LinkedBlockingQueue<Record> pending = new LinkedBlockingQueue<>();
+	// 완료 기록이 없는 항목 (로그 압축용, this로 동기화)
+	private final Map<String, Record> unfinished = new LinkedHashMap<>();
+	private long doneSinceCompaction;
+	private FileChannel channel;
+	private Thread dispatcher;
+	// 백오프가 끝난 항목을 다시 pending에 넣는 스레드
+	private ScheduledExecutorService retryScheduler;
+	// 항목별 발송 실패 횟수 (dispatcher 스레드에서만 사용)
+	private final Map<String, Integer> attempts = new HashMap<>();
+	private volatile boolean running;
+
+	public static class Record {
+		public String type;
+		public String id;
+		public String from;
+		public String templateName;
+		public String replyTo;
+		public List<OutboxRecipient> recipients;
+		public int sent;
+		public List<String> failed;
+	}
+
+	public static class OutboxRecipient {
+		public String email;
+		public String name;
+		public Map<String, Object> fields;
+	}
+
+	public SESOutbox(Path logPath) {
+		this.logPath = logPath;
+	}
+
+	/*
+	 * 기본 outbox (환경변수 SES_OUTBOX_PATH, 없으면 ./ses-outbox.log). 처음 호출 시 로그를 복구하고 dispatcher를 시작함.
+	 */
+	public static SESOutbox getInstance() {
+		if (instance == null) {
+			synchronized (SESOutbox.class) {
+				if (instance == null) {
+					String path = System.getenv("SES_OUTBOX_PATH");
+
+					if (path == null || path.isEmpty() == true) {
+						path = "ses-outbox.log";
+					}
+
+					SESOutbox outbox = new SESOutbox(Paths.get(path));
+					outbox.start();
+					instance = outbox;
+				}
+			}
+		}
+
+		return instance;
+	}
+
+	/*
+	 * 기본 outbox가 만들어져 있으면 중지 (앱 종료 시 호출, 만들어진 적 없으면 아무것도 하지 않음).
+	 */
+	public static void shutdown() {
+		SESOutbox outbox = instance;
+
+		if (outbox != null) {
+			outbox.stop();
+		}
+	}
+
+	public synchronized void start() {
+		if (running == true) {
+			return;
+		}
+
+		try {
+			List<Record> recovered = recover();
+
+			channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			// stop() 후 다시 시작하는 경우 큐에 남은 항목은 로그에서 다시 읽었으므로 비움
+			pending.clear();
+			pending.addAll(recovered);
+			attempts.clear();
+		} catch (IOException e) {
+			MyPrint.printf(e);
+
+			return;
+		}
+
+		retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "ses-outbox-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		running = true;
+		dispatcher = new Thread(this::dispatchLoop, "ses-outbox");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	/*
+	 * dispatcher가 진행 중인 발송과 완료 기록을 마칠 때까지 최대 5초 기다린 뒤 로그를 닫음.
+	 * (interrupt하지 않음: FileChannel 쓰기 도중 interrupt되면 채널이 닫혀 완료 기록을 잃고 재시작 후 중복 발송됨)
+	 */
+	public void stop() {
+		running = false;
+
+		if (dispatcher != null) {
+			try {
+				dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (this) {
+			// 백오프 중인 항목은 로그에 미완료로 남아 있으므로 다시 시작할 때 복구됨
+			if (retryScheduler != null) {
+				retryScheduler.shutdownNow();
+			}
+
+			try {
+				if (channel != null) {
+					channel.close();
+				}
+			} catch (IOException e) {
+				MyPrint.printf(e);
+			}
+
+			channel = null;
+		}
+	}
+
+	/**
+	 * 발송 요청을 로그에 기록하고 바로 리턴 (디스크 동기화까지 끝난 뒤 리턴하므로 재시작해도 유실되지 않음).
+	 * 유실은 없지만 재시작 시점에 따라 중복 발송될 수 있음 (클래스 주석 참고).
+	 *
+	 * @return outbox 항목 ID, 기록에 실패하면 null
+	 */
+	public String enqueue(String from, String templateName, List<SES.Recipient> recipients, String replyTo) {
+		Record record = new Record();
+		record.type = TYPE_ENQUEUE;
+		record.id = UUID.randomUUID().toString();
+		record.from = from;
+		record.templateName = templateName;
+		record.replyTo = replyTo;
+		record.recipients = new ArrayList<>(recipients.size());
+
+		for (SES.Recipient item : recipients) {
+			OutboxRecipient recipient = new OutboxRecipient();
+			recipient.email = item.email;
+			recipient.name = item.name;
+			recipient.fields = item.fields;
+			record.recipients.add(recipient);
+		}
+
+		try {
+			append(record);
+		} catch (IOException e) {
+			MyPrint.printf(e);
+
+			return null;
+		}
+
+		pending.add(record);
+
+		return record.id;
+	}
+
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	private void dispatchLoop() {
+		while (running == true) {
+			List<Record> batch = new ArrayList<>();
+
+			try {
+				Record first = pending.poll(1, TimeUnit.SECONDS);
+
+				if (first == null) {
+					continue;
+				}
+
+				batch.add(first);
+				pending.drainTo(batch, MAX_DRAIN_ENTRIES - 1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+
+			// (발신자, 템플릿, replyTo) 별로 묶어서 한 번에 발송
+			Map<String, List<Record>> groups = new LinkedHashMap<>();
+
+			for (Record record : batch) {
+				String key = record.from + '\u0000' + record.templateName + '\u0000' + record.replyTo;
+				groups.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+			}
+
+			for (List<Record> group : groups.values()) {
+				dispatch(group);
+			}
+		}
+	}
+
+	private void dispatch(List<Record> group) {
+		Record head = group.get(0);
+		List<SES.Recipient> recipients = new ArrayList<>();
+
+		for (Record record : group) {
+			for (OutboxRecipient recipient : record.recipients) {
+				recipients.add(new SES.Recipient(recipient.email, recipient.name, recipient.fields));
+			}
+		}
+
+		Map<String, Boolean> results;
+
+		try {
+			results = new SES().sendEmail(head.from, head.templateName, recipients, head.replyTo);
+		} catch (Exception e) {
+			// 발송 자체가 실패하면 완료 기록 없이 백오프 후 다시 큐에 넣음 (자격 증명 / 리전 오류 등으로 계속 실패할 때 SES를 두드리며 돌지 않도록)
+			MyPrint.printf(e);
+			retryLater(group);
+
+			return;
+		}
+
+		for (Record record : group) {
+			attempts.remove(record.id);
+
+			Record done = new Record();
+			done.type = TYPE_DONE;
+			done.id = record.id;
+			done.failed = new ArrayList<>();
+
+			for (OutboxRecipient recipient : record.recipients) {
+				if (Boolean.TRUE.equals(results.get(recipient.email)) == true) {
+					done.sent++;
+				} else {
+					done.failed.add(recipient.email);
+				}
+			}
+
+			try {
+				append(done);
+			} catch (IOException e) {
+				MyPrint.printf(e);
+			}
+		}
+	}
+
+	/*
+	 * 발송에 실패한 항목을 시도 횟수에 따른 지수 백오프 후 다시 pending에 넣음.
+	 * MAX_ATTEMPTS번 실패한 항목은 dead 기록을 남기고 더 이상 보내지 않음.
+	 */
+	private void retryLater(List<Record> group) {
+		Map<Long, List<Record>> retries = new LinkedHashMap<>();
+
+		for (Record record : group) {
+			int attempt = attempts.merge(record.id, 1, Integer::sum);
+
+			if (attempt >= MAX_ATTEMPTS) {
+				attempts.remove(record.id);
+				deadLetter(record, attempt);
+				continue;
+			}
+
+			long delay = Math.min(RETRY_MAX_DELAY_MILLIS, RETRY_BASE_DELAY_MILLIS << Math.min(attempt - 1, 20));
+			retries.computeIfAbsent(delay, k -> new ArrayList<>()).add(record);
+		}
+
+		for (Map.Entry<Long, List<Record>> retry : retries.entrySet()) {
+			List<Record> records = retry.getValue();
+
+			try {
+				retryScheduler.schedule(() -> pending.addAll(records), retry.getKey(), TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				// stop() 이후: 로그에 미완료로 남아 있으므로 재시작 시 다시 보냄
+			}
+		}
+	}
+
+	private void deadLetter(Record record, int attempt) {
+		MyPrint.warn("SES outbox entry " + record.id + " failed " + attempt + " times, giving up");
+
+		Record dead = new Record();
+		dead.type = TYPE_DEAD;
+		dead.id = record.id;
+		dead.failed = new ArrayList<>();
+
+		for (OutboxRecipient recipient : record.recipients) {
+			dead.failed.add(recipient.email);
+		}
+
+		try {
+			append(dead);
+		} catch (IOException e) {
+			MyPrint.printf(e);
+		}
+	}
+
+	private synchronized void append(Record record) throws IOException {
+		if (channel == null) {
+			throw new IOException("SES outbox is not started");
+		}
+
+		byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.wrap(line);
+
+		while (buffer.hasRemaining() == true) {
+			channel.write(buffer);
+		}
+
+		channel.force(false);
+
+		if (Objects.equals(record.type, TYPE_ENQUEUE) == true) {
+			unfinished.put(record.id, record);
+		} else if (unfinished.remove(record.id) != null && ++doneSinceCompaction >= COMPACT_THRESHOLD) {
+			compact();
+		}
+	}
+
+	/*
+	 * 미완료 항목만 새 로그에 쓰고 교체한 뒤 append 채널을 다시 엶 (append와 같은 락 안에서 호출).
+	 * 실패하면 기존 로그를 그대로 계속 사용하고 다음 완료 기록 때 다시 시도.
+	 */
+	private void compact() {
+		try {
+			writeCompacted(unfinished.values());
+
+			channel.close();
+			channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			doneSinceCompaction = 0;
+		} catch (IOException e) {
+			MyPrint.printf(e);
+		}
+	}
+
+	/*
+	 * 로그를 읽어 완료되지 않은 항목을 돌려주고, 완료된 기록은 버리도록 로그를 압축(재작성).
+	 */
+	private List<Record> recover() throws IOException {
+		unfinished.clear();
+		doneSinceCompaction = 0;
+
+		if (Files.exists(logPath) == false) {
+			return new ArrayList<>();
+		}
+
+		try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank() == true) {
+					continue;
+				}
+
+				Record record;
+
+				try {
+					record = objectMapper.readValue(line, Record.class);
+				} catch (IOException e) {
+					// 기록 도중 종료되어 잘린 마지막 줄은 무시
+					MyPrint.printf(e.getMessage());
+					continue;
+				}
+
+				if (Objects.equals(record.type, TYPE_ENQUEUE) == true) {
+					unfinished.put(record.id, record);
+				} else if (Objects.equals(record.type, TYPE_DONE) == true || Objects.equals(record.type, TYPE_DEAD) == true) {
+					unfinished.remove(record.id);
+				}
+			}
+		}
+
+		writeCompacted(unfinished.values());
+
+		return new ArrayList<>(unfinished.values());
+	}
+
+	private void writeCompacted(Collection<Record> records) throws IOException {
+		Path compacted = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (Record record : records) {
+				ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+
+				while (buffer.hasRemaining() == true) {
+					out.write(buffer);
+				}
+			}
+
+			out.force(true);
+		}
+
+		Files.move(compacted, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isEmpty() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			MyPrint.printf(e.getMessage());
+
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.chungho.snippet.common;
+
+import software.amazon.awssdk.services.sesv2.SesV2Client;
+import software.amazon.awssdk.services.sesv2.model.GetAccountRequest;
+import software.amazon.awssdk.services.sesv2.model.GetAccountResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * SES 초당 발송 한도(max send rate)에 맞춘 토큰 버킷.
+ * - 한도는 GetAccount의 SendQuota.MaxSendRate 에서 읽어옴 (실패 시 기본값)
+ * - 쓰로틀링 응답을 받으면 속도를 절반으로 줄이고, 성공하면 한도까지 조금씩 다시 올림 (AIMD)
+ * - 요청한 토큰이 부족하면 미리 차감(빚)하고 그만큼 대기하므로 버킷 크기보다 큰 요청(50명 묶음)도 처리 가능
+ */
+public class SESRateLimiter {
+
+	private static final double DEFAULT_MAX_SEND_RATE = 14.0;
+	private static final double MIN_SEND_RATE = 1.0;
+	private static final double DECREASE_FACTOR = 0.5;
+	private static final double INCREASE_RATIO = 0.05;
+
+	private volatile boolean initialized;
+	private double maxRate = DEFAULT_MAX_SEND_RATE;
+	private double rate = DEFAULT_MAX_SEND_RATE;
+	private double tokens = DEFAULT_MAX_SEND_RATE;
+	private long lastRefillNanos = System.nanoTime();
+
+	/*
+	 * 계정의 초당 발송 한도를 읽어와 설정 (최초 1회).
+	 */
+	public void initialize(SesV2Client sesClient) {
+		if (initialized == true) {
+			return;
+		}
+
+		synchronized (this) {
+			if (initialized == true) {
+				return;
+			}
+
+			try {
+				GetAccountResponse account = sesClient.getAccount(GetAccountRequest.builder().build());
+
+				if (account.sendQuota() != null && account.sendQuota().maxSendRate() != null) {
+					setMaxRate(account.sendQuota().maxSendRate());
+				}
+			} catch (Exception e) {
+				MyPrint.printf(e.getMessage());
+			}
+
+			initialized = true;
+		}
+	}
+
+	public synchronized void setMaxRate(double maxSendRate) {
+		this.maxRate = Math.max(MIN_SEND_RATE, maxSendRate);
+		this.rate = this.maxRate;
+		this.tokens = Math.min(tokens, this.maxRate);
+	}
+
+	public synchronized double getRate() {
+		return rate;
+	}
+
+	/*
+	 * permits 만큼 발송할 수 있을 때까지 대기.
+	 */
+	public void acquire(int permits) throws InterruptedException {
+		long waitNanos;
+
+		synchronized (this) {
+			refill();
+			tokens -= permits;
+			waitNanos = tokens >= 0 ? 0 : (long) (-tokens / rate * 1_000_000_000L);
+		}
+
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	public synchronized void onThrottled() {
+		refill();
+		rate = Math.max(MIN_SEND_RATE, rate * DECREASE_FACTOR);
+		tokens = Math.min(tokens, rate);
+	}
+
+	public synchronized void onSuccess() {
+		refill();
+		rate = Math.min(maxRate, rate + maxRate * INCREASE_RATIO);
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+		double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+
+		tokens = Math.min(rate, tokens + elapsedSeconds * rate);
+		lastRefillNanos = now;
+	}
+}
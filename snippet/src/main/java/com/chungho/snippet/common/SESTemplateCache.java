@@ -0,0 +1,328 @@
+package com.chungho.snippet.common;
+
+import software.amazon.awssdk.services.sesv2.SesV2Client;
+import software.amazon.awssdk.services.sesv2.model.EmailTemplateContent;
+import software.amazon.awssdk.services.sesv2.model.EmailTemplateMetadata;
+import software.amazon.awssdk.services.sesv2.model.GetEmailTemplateRequest;
+import software.amazon.awssdk.services.sesv2.model.GetEmailTemplateResponse;
+import software.amazon.awssdk.services.sesv2.model.ListEmailTemplatesRequest;
+import software.amazon.awssdk.services.sesv2.model.ListEmailTemplatesResponse;
+import software.amazon.awssdk.services.sesv2.model.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * SES 템플릿 이름 / 내용 캐시.
+ * - 시작 시 전체 이름 목록을 읽고, 이후 백그라운드에서 주기적으로 다시 읽어 추가 / 삭제 / 내용 변경을 로그로 남김
+ * - 내용은 조회된 템플릿만 보관 (갱신 시 다시 읽어서 비교)
+ * - create / update / delete 성공 시 SES에서 바로 반영 (write-through)
+ * - 갱신은 락 밖에서 SES를 읽고 락 안에서 합치며, 읽는 도중 put / remove된 템플릿은 로컬 변경을 우선함 (버전 비교)
+ */
+public class SESTemplateCache {
+
+	// ListEmailTemplates 최대 페이지 크기
+	private static final int LIST_PAGE_SIZE = 100;
+	private static final long DEFAULT_REFRESH_SECONDS = 300;
+
+	private final Map<String, SES.TemplateContentResult> contents = new ConcurrentHashMap<>();
+	private volatile Set<String> names = Collections.emptySet();
+	// put / remove 할 때마다 증가 (this로 동기화)
+	private long version;
+	// 템플릿별 마지막 로컬 변경, 갱신 중에 SES에서 읽은 값으로 덮어쓰지 않기 위해 보관 (this로 동기화)
+	private final Map<String, LocalWrite> localWrites = new HashMap<>();
+	// refresh()가 동시에 두 번 돌지 않도록
+	private final Object refreshLock = new Object();
+	private volatile boolean loaded;
+	private volatile boolean started;
+	private SesV2Client sesClient;
+	private ScheduledExecutorService scheduler;
+
+	private static class LocalWrite {
+		final long version;
+		final boolean present;
+
+		LocalWrite(long version, boolean present) {
+			this.version = version;
+			this.present = present;
+		}
+	}
+
+	/*
+	 * 최초 1회: 백그라운드에서 바로 목록을 읽고, 이후 SES_TEMPLATE_REFRESH_SECONDS(기본 300초) 간격으로 갱신.
+	 */
+	public void start(SesV2Client sesClient) {
+		if (started == true) {
+			return;
+		}
+
+		synchronized (this) {
+			if (started == true) {
+				return;
+			}
+
+			this.sesClient = sesClient;
+
+			long refreshSeconds = DEFAULT_REFRESH_SECONDS;
+			String value = System.getenv("SES_TEMPLATE_REFRESH_SECONDS");
+
+			if (value != null && value.isEmpty() == false) {
+				try {
+					refreshSeconds = Long.parseLong(value);
+				} catch (NumberFormatException e) {
+					MyPrint.printf(e.getMessage());
+				}
+			}
+
+			// scheduleWithFixedDelay는 0 이하의 간격이면 예외
+			if (refreshSeconds <= 0) {
+				MyPrint.warn("SES_TEMPLATE_REFRESH_SECONDS must be positive: " + refreshSeconds + ", using " + DEFAULT_REFRESH_SECONDS);
+				refreshSeconds = DEFAULT_REFRESH_SECONDS;
+			}
+
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "ses-template-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshSeconds, TimeUnit.SECONDS);
+
+			started = true;
+		}
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * @return 캐시된 이름 목록, 아직 한 번도 읽지 못했으면 null
+	 */
+	public List<String> getNames() {
+		return loaded == true ? new ArrayList<>(names) : null;
+	}
+
+	public SES.TemplateContentResult getContent(String templateName) {
+		return contents.get(templateName);
+	}
+
+	/*
+	 * 템플릿 존재 여부. 캐시에 없으면 다른 서버에서 방금 만들었을 수 있으므로 SES에 한 번 확인함.
+	 */
+	public boolean exists(String templateName) {
+		if (names.contains(templateName) == true || contents.containsKey(templateName) == true) {
+			return true;
+		}
+
+		try {
+			SES.TemplateContentResult content = fetch(sesClient, templateName);
+
+			if (content == null) {
+				return false;
+			}
+
+			put(templateName, content);
+
+			return true;
+		} catch (Exception e) {
+			// 확인할 수 없으면 발송은 막지 않음
+			MyPrint.printf(e.getMessage());
+
+			return true;
+		}
+	}
+
+	public synchronized void put(String templateName, SES.TemplateContentResult content) {
+		localWrites.put(templateName, new LocalWrite(++version, true));
+		contents.put(templateName, content);
+
+		if (names.contains(templateName) == false) {
+			Set<String> updated = new LinkedHashSet<>(names);
+			updated.add(templateName);
+			names = updated;
+		}
+	}
+
+	public synchronized void remove(String templateName) {
+		localWrites.put(templateName, new LocalWrite(++version, false));
+		removeEntry(templateName);
+	}
+
+	/*
+	 * 목록만 SES에서 다시 읽어 반영하고 리턴 (캐시가 아직 비어 있을 때 SES에서 호출).
+	 */
+	List<String> loadNames() {
+		synchronized (refreshLock) {
+			long listVersion = getVersion();
+			setNames(listNames(sesClient), listVersion);
+
+			return getNames();
+		}
+	}
+
+	private synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * SES에서 읽은 전체 목록으로 교체. 목록을 읽는 도중 put / remove된 템플릿은 로컬 변경을 유지함.
+	 * refreshLock 안에서만 호출 (오래된 로컬 변경을 정리하므로 동시에 진행 중인 다른 갱신이 있으면 안 됨).
+	 *
+	 * @param listVersion 목록을 읽기 전에 getVersion()으로 받은 값
+	 */
+	private synchronized void setNames(List<String> templateNames, long listVersion) {
+		Set<String> merged = new LinkedHashSet<>(templateNames);
+
+		for (Map.Entry<String, LocalWrite> write : localWrites.entrySet()) {
+			if (write.getValue().version > listVersion) {
+				if (write.getValue().present == true) {
+					merged.add(write.getKey());
+				} else {
+					merged.remove(write.getKey());
+				}
+			}
+		}
+
+		if (loaded == true) {
+			for (String name : merged) {
+				if (names.contains(name) == false) {
+					MyPrint.printf("SES template added: " + name);
+				}
+			}
+
+			for (String name : names) {
+				if (merged.contains(name) == false) {
+					MyPrint.printf("SES template removed: " + name);
+				}
+			}
+		}
+
+		names = merged;
+		contents.keySet().retainAll(merged);
+		loaded = true;
+
+		// 이 목록보다 오래된 로컬 변경은 목록에 이미 반영되어 있으므로 더 이상 필요 없음
+		localWrites.values().removeIf(write -> write.version <= listVersion);
+	}
+
+	/*
+	 * 전체 목록을 다시 읽고, 내용이 캐시된 템플릿은 내용도 다시 읽어서 바뀐 것을 반영.
+	 */
+	public void refresh() {
+		synchronized (refreshLock) {
+			try {
+				long listVersion = getVersion();
+				setNames(listNames(sesClient), listVersion);
+
+				for (String name : new ArrayList<>(contents.keySet())) {
+					long fetchVersion = getVersion();
+					mergeContent(name, fetch(sesClient, name), fetchVersion);
+				}
+			} catch (Exception e) {
+				MyPrint.printf(e.getMessage());
+			}
+		}
+	}
+
+	/*
+	 * 갱신 중에 읽은 내용을 반영. 읽는 도중 로컬에서 put / remove되었거나 이미 캐시에서 빠진 템플릿은 건드리지 않음.
+	 */
+	private synchronized void mergeContent(String name, SES.TemplateContentResult current, long fetchVersion) {
+		LocalWrite write = localWrites.get(name);
+
+		if ((write != null && write.version > fetchVersion) || contents.containsKey(name) == false) {
+			return;
+		}
+
+		if (current == null) {
+			removeEntry(name);
+			return;
+		}
+
+		SES.TemplateContentResult cached = contents.get(name);
+
+		if (Objects.equals(cached.subject, current.subject) == false || Objects.equals(cached.text, current.text) == false) {
+			MyPrint.printf("SES template changed: " + name);
+		}
+
+		contents.put(name, current);
+	}
+
+	private void removeEntry(String templateName) {
+		contents.remove(templateName);
+
+		if (names.contains(templateName) == true) {
+			Set<String> updated = new LinkedHashSet<>(names);
+			updated.remove(templateName);
+			names = updated;
+		}
+	}
+
+	/*
+	 * SES에서 전체 템플릿 이름을 페이지 단위로 읽어옴.
+	 */
+	static List<String> listNames(SesV2Client sesClient) {
+		List<String> resultList = new ArrayList<>();
+		String nextToken = null;
+
+		do {
+			ListEmailTemplatesRequest.Builder requestBuilder = ListEmailTemplatesRequest.builder().pageSize(LIST_PAGE_SIZE);
+
+			if (nextToken != null && nextToken.isEmpty() == false) {
+				requestBuilder.nextToken(nextToken);
+			}
+
+			ListEmailTemplatesResponse response = sesClient.listEmailTemplates(requestBuilder.build());
+
+			if (response.sdkHttpResponse().isSuccessful() == false || response.templatesMetadata() == null) {
+				throw new IllegalStateException("ListEmailTemplates failed");
+			}
+
+			for (EmailTemplateMetadata meta : response.templatesMetadata()) {
+				resultList.add(meta.templateName());
+			}
+
+			nextToken = response.nextToken();
+		} while (nextToken != null && nextToken.isEmpty() == false);
+
+		return resultList;
+	}
+
+	/**
+	 * @return 템플릿이 없으면 null
+	 */
+	static SES.TemplateContentResult fetch(SesV2Client sesClient, String templateName) {
+		GetEmailTemplateRequest request = GetEmailTemplateRequest
+				.builder()
+				.templateName(templateName)
+				.build();
+
+		try {
+			GetEmailTemplateResponse response = sesClient.getEmailTemplate(request);
+
+			if (response.sdkHttpResponse().isSuccessful() == false || response.templateContent() == null) {
+				throw new IllegalStateException("GetEmailTemplate failed: " + templateName);
+			}
+
+			EmailTemplateContent content = response.templateContent();
+
+			if (content.text() != null && content.text().equals(" ") == false) {
+				return new SES.TemplateContentResult(content.subject(), content.text());
+			} else {
+				return new SES.TemplateContentResult(content.subject(), content.html());
+			}
+		} catch (NotFoundException ex) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.chungho.snippet.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailContent;
+import software.amazon.awssdk.services.sesv2.model.Template;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * SendBulkEmail 수신자별 치환 데이터(JSON) 인코더.
+ * - 수신자마다 HashMap + writeValueAsString 하던 것을 JsonGenerator로 스레드별 버퍼에 바로 씀
+ * - name 외에 수신자별 임의 필드(Recipient.fields) 지원
+ * - 템플릿별 기본 Template / BulkEmailContent 는 한 번만 만들어서 재사용
+ */
+public class SESTemplateData {
+
+	// 버퍼가 이보다 커지면 스레드에 보관하지 않고 버림 (큰 수신자 데이터 한 번에 메모리가 계속 잡혀 있지 않도록)
+	private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+	private static final String NAME_FIELD = "name";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(() -> new StringWriter(256));
+
+	// 템플릿에 없는 변수가 있으면 SES가 렌더링에 실패하므로 기본값을 채워둠
+	private static final String DEFAULT_TEMPLATE_DATA = "{\"brand\":\" \",\"price\":0}";
+
+	private static final Map<String, BulkEmailContent> DEFAULT_CONTENTS = new ConcurrentHashMap<>();
+
+	public static BulkEmailContent defaultContent(String templateName) {
+		return DEFAULT_CONTENTS.computeIfAbsent(templateName, name -> BulkEmailContent
+				.builder()
+				.template(Template
+						.builder()
+						.templateName(name)
+						.templateData(DEFAULT_TEMPLATE_DATA)
+						.build())
+				.build());
+	}
+
+	/**
+	 * {"name": ..., 필드...} 형태의 치환 JSON.
+	 * fields에 "name" 키가 있어도 무시함 (중복 키가 생기지 않도록 Recipient.name이 우선).
+	 */
+	public static String encode(SES.Recipient recipient) throws IOException {
+		StringWriter buffer = BUFFER.get();
+		buffer.getBuffer().setLength(0);
+
+		try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(buffer)) {
+			generator.writeStartObject();
+			generator.writeStringField(NAME_FIELD, recipient.name);
+
+			if (recipient.fields != null) {
+				for (Map.Entry<String, Object> field : recipient.fields.entrySet()) {
+					if (NAME_FIELD.equals(field.getKey()) == true) {
+						continue;
+					}
+
+					generator.writeFieldName(field.getKey());
+					writeValue(generator, field.getValue());
+				}
+			}
+
+			generator.writeEndObject();
+		}
+
+		String json = buffer.toString();
+
+		if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER) {
+			BUFFER.remove();
+		}
+
+		return json;
+	}
+
+	private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+		if (value == null) {
+			generator.writeNull();
+		} else if (value instanceof String text) {
+			generator.writeString(text);
+		} else if (value instanceof Integer number) {
+			generator.writeNumber(number);
+		} else if (value instanceof Long number) {
+			generator.writeNumber(number);
+		} else if (value instanceof Double number) {
+			generator.writeNumber(number);
+		} else if (value instanceof BigDecimal number) {
+			generator.writeNumber(number);
+		} else if (value instanceof BigInteger number) {
+			generator.writeNumber(number);
+		} else if (value instanceof Boolean bool) {
+			generator.writeBoolean(bool);
+		} else {
+			// 중첩 객체 / 배열 등은 ObjectMapper에 맡김
+			generator.writeObject(value);
+		}
+	}
+}
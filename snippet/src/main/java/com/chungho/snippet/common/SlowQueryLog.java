@@ -0,0 +1,398 @@
+package com.chungho.snippet.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/*
+ * 느린 쿼리 기록기 (MySQL / PostgreSQL 공용).
+ * - 기준 시간(SLOW_QUERY_THRESHOLD_MS, 기본 200ms)을 넘은 쿼리만 기록 (그 이하는 비교 한 번으로 끝)
+ * - 리터럴을 ?로 바꾼 fingerprint 단위로 횟수 / 합계 / 최대 시간을 모음
+ * - 최근 두 구간(SLOW_QUERY_WINDOW_SECONDS, 기본 300초)만 유지: 구간이 지나면 CAS로 현재 구간을 새 것으로 교체 (락 없음)
+ * - 처음 보는 느린 SELECT는 별도 스레드에서 별도 커넥션으로 EXPLAIN 결과를 받아 둠
+ */
+public class SlowQueryLog {
+
+	/*
+	 * EXPLAIN 실행기 (원래 쿼리와 다른 커넥션을 사용해야 함).
+	 */
+	@FunctionalInterface
+	public interface Explainer {
+		String explain(String sql) throws Exception;
+	}
+
+	// 한 구간에 기록하는 최대 fingerprint 수 (넘으면 새 fingerprint는 무시)
+	private static final int MAX_FINGERPRINTS = 1000;
+	private static final int MAX_SAMPLE_SQL_LENGTH = 2000;
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern VALUES_LIST = Pattern.compile("(\\(\\?\\+?\\))(\\s*,\\s*\\(\\?\\+?\\))+");
+
+	private static final SlowQueryLog INSTANCE = new SlowQueryLog(
+			envLong("SLOW_QUERY_THRESHOLD_MS", 200),
+			envLong("SLOW_QUERY_WINDOW_SECONDS", 300) * 1000
+	);
+
+	private final long thresholdNanos;
+	private final long windowMillis;
+	private final AtomicReference<Window> current;
+	private volatile Window previous;
+
+	// EXPLAIN은 한 번에 하나씩, 밀리면 버림
+	private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(
+			1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+			r -> {
+				Thread thread = new Thread(r, "slow-query-explain");
+				thread.setDaemon(true);
+				return thread;
+			},
+			new ThreadPoolExecutor.DiscardPolicy()
+	);
+
+	public static class Entry {
+		public final String source;
+		public final String fingerprint;
+		public final String sampleSql;
+		public final long count;
+		public final double maxMillis;
+		public final double avgMillis;
+		public final String explain;
+
+		Entry(String source, String fingerprint, String sampleSql, long count, long maxNanos, long totalNanos, String explain) {
+			this.source = source;
+			this.fingerprint = fingerprint;
+			this.sampleSql = sampleSql;
+			this.count = count;
+			this.maxMillis = maxNanos / 1_000_000.0;
+			this.avgMillis = count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+			this.explain = explain;
+		}
+	}
+
+	private static class Stat {
+		final String source;
+		final String fingerprint;
+		final String sampleSql;
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final AtomicLong maxNanos = new AtomicLong();
+		volatile String explain;
+
+		Stat(String source, String fingerprint, String sampleSql) {
+			this.source = source;
+			this.fingerprint = fingerprint;
+			this.sampleSql = sampleSql;
+		}
+	}
+
+	private static class Window {
+		final long startMillis;
+		final ConcurrentHashMap<String, Stat> stats = new ConcurrentHashMap<>();
+
+		Window(long startMillis) {
+			this.startMillis = startMillis;
+		}
+	}
+
+	public SlowQueryLog(long thresholdMillis, long windowMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		this.windowMillis = windowMillis;
+		this.current = new AtomicReference<>(new Window(System.currentTimeMillis()));
+		this.previous = new Window(0);
+	}
+
+	public static SlowQueryLog getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * 쿼리 한 번의 실행 시간을 기록.
+	 *
+	 * @param source    "mysql" / "postgresql"
+	 * @param explainer 처음 보는 느린 SELECT에 대해 EXPLAIN을 실행할 함수 (null이면 생략)
+	 */
+	public void record(String source, String sql, long elapsedNanos, Explainer explainer) {
+		if (elapsedNanos < thresholdNanos || sql == null) {
+			return;
+		}
+
+		Window window = currentWindow();
+		String fingerprint = fingerprint(source, sql);
+		String key = source + ':' + fingerprint;
+		Stat stat = window.stats.get(key);
+
+		if (stat == null) {
+			if (window.stats.size() >= MAX_FINGERPRINTS) {
+				return;
+			}
+
+			Stat created = new Stat(source, fingerprint, sql.length() > MAX_SAMPLE_SQL_LENGTH ? sql.substring(0, MAX_SAMPLE_SQL_LENGTH) : sql);
+			stat = window.stats.putIfAbsent(key, created);
+
+			if (stat == null) {
+				stat = created;
+				MyPrint.warn(() -> "slow query " + elapsedNanos / 1_000_000 + "ms: " + created.sampleSql);
+				captureExplain(created, previous.stats.get(key), sql, explainer);
+			}
+		}
+
+		stat.count.increment();
+		stat.totalNanos.add(elapsedNanos);
+		stat.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+	}
+
+	/*
+	 * 최근 두 구간을 합쳐서 최대 실행 시간이 긴 순서로 limit개.
+	 */
+	public List<Entry> getTop(int limit) {
+		currentWindow();
+
+		Map<String, List<Stat>> byKey = new HashMap<>();
+
+		for (Window window : new Window[] { previous, current.get() }) {
+			for (Map.Entry<String, Stat> item : window.stats.entrySet()) {
+				byKey.computeIfAbsent(item.getKey(), key -> new ArrayList<>(2)).add(item.getValue());
+			}
+		}
+
+		List<Entry> entries = new ArrayList<>(byKey.size());
+
+		for (List<Stat> stats : byKey.values()) {
+			long count = 0;
+			long totalNanos = 0;
+			long maxNanos = 0;
+			String explain = null;
+
+			for (Stat stat : stats) {
+				count += stat.count.sum();
+				totalNanos += stat.totalNanos.sum();
+				maxNanos = Math.max(maxNanos, stat.maxNanos.get());
+				explain = stat.explain != null ? stat.explain : explain;
+			}
+
+			Stat latest = stats.get(stats.size() - 1);
+			entries.add(new Entry(latest.source, latest.fingerprint, latest.sampleSql, count, maxNanos, totalNanos, explain));
+		}
+
+		entries.sort(Comparator.comparingDouble((Entry e) -> e.maxMillis).reversed());
+
+		return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+	}
+
+	private Window currentWindow() {
+		Window window = current.get();
+		long now = System.currentTimeMillis();
+
+		if (now - window.startMillis >= windowMillis) {
+			Window next = new Window(now);
+
+			if (current.compareAndSet(window, next) == true) {
+				previous = window;
+			}
+
+			return current.get();
+		}
+
+		return window;
+	}
+
+	private void captureExplain(Stat stat, Stat previousStat, String sql, Explainer explainer) {
+		// 이전 구간에서 이미 받아 둔 EXPLAIN이 있으면 재사용
+		if (previousStat != null && previousStat.explain != null) {
+			stat.explain = previousStat.explain;
+			return;
+		}
+
+		if (explainer == null || isSelect(sql) == false) {
+			return;
+		}
+
+		explainExecutor.execute(() -> {
+			try {
+				stat.explain = explainer.explain(sql);
+			} catch (Exception e) {
+				stat.explain = "EXPLAIN failed: " + e.getMessage();
+			}
+		});
+	}
+
+	private static boolean isSelect(String sql) {
+		String trimmed = sql.stripLeading();
+
+		return trimmed.regionMatches(true, 0, "SELECT", 0, 6) == true || trimmed.regionMatches(true, 0, "WITH", 0, 4) == true;
+	}
+
+	/*
+	 * 문자열 / 숫자 리터럴을 ?로 바꾸고, 주석을 지우고, 공백을 정리하고, IN (?, ?, ...) 과 여러 행 VALUES를 하나로 접음.
+	 * MySQL은 "..."도 문자열이고 #도 한 줄 주석, PostgreSQL은 "..."가 식별자이고 $tag$...$tag$ 문자열과 중첩 블록 주석이 있음.
+	 *
+	 * @param source "mysql" / "postgresql"
+	 */
+	public static String fingerprint(String source, String sql) {
+		boolean mysql = "mysql".equals(source);
+		StringBuilder out = new StringBuilder(sql.length());
+		int length = sql.length();
+		int i = 0;
+
+		while (i < length) {
+			char c = sql.charAt(i);
+			int dollarQuoteEnd;
+
+			if (c == '\'' || (c == '"' && mysql == true)) {
+				i = skipQuoted(sql, i);
+				out.append('?');
+			} else if (isLineComment(sql, i, mysql) == true) {
+				while (i < length && sql.charAt(i) != '\n') {
+					i++;
+				}
+
+				out.append(' ');
+			} else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				i = skipBlockComment(sql, i, mysql == false);
+				out.append(' ');
+			} else if (c == '$' && mysql == false && (i == 0 || isIdentifierChar(sql.charAt(i - 1)) == false)
+					&& (dollarQuoteEnd = skipDollarQuoted(sql, i)) > i) {
+				i = dollarQuoteEnd;
+				out.append('?');
+			} else if (Character.isDigit(c) == true && (i == 0 || isIdentifierChar(sql.charAt(i - 1)) == false)) {
+				// 숫자 리터럴 (식별자 안의 숫자는 제외)
+				while (i < length && (Character.isDigit(sql.charAt(i)) == true || sql.charAt(i) == '.')) {
+					i++;
+				}
+
+				out.append('?');
+			} else {
+				out.append(Character.toLowerCase(c));
+				i++;
+			}
+		}
+
+		String normalized = WHITESPACE.matcher(out).replaceAll(" ").trim();
+		normalized = IN_LIST.matcher(normalized).replaceAll("(?+)");
+		normalized = VALUES_LIST.matcher(normalized).replaceAll("$1, ...");
+
+		return normalized;
+	}
+
+	/**
+	 * start 위치의 따옴표로 시작하는 문자열을 건너뜀 (따옴표 두 번 또는 \ 이스케이프 포함).
+	 *
+	 * @return 닫는 따옴표 다음 위치 (닫히지 않았으면 끝)
+	 */
+	private static int skipQuoted(String sql, int start) {
+		char quote = sql.charAt(start);
+		int length = sql.length();
+		int i = start + 1;
+
+		while (i < length) {
+			char d = sql.charAt(i);
+
+			if (d == '\\') {
+				i += 2;
+			} else if (d == quote && i + 1 < length && sql.charAt(i + 1) == quote) {
+				i += 2;
+			} else if (d == quote) {
+				return i + 1;
+			} else {
+				i++;
+			}
+		}
+
+		return length;
+	}
+
+	// -- 주석 (MySQL은 뒤에 공백이 있어야 주석, a--1 은 빼기 두 번), MySQL의 # 주석
+	private static boolean isLineComment(String sql, int i, boolean mysql) {
+		char c = sql.charAt(i);
+
+		if (c == '#') {
+			return mysql;
+		}
+
+		if (c != '-' || i + 1 >= sql.length() || sql.charAt(i + 1) != '-') {
+			return false;
+		}
+
+		return mysql == false || i + 2 >= sql.length() || Character.isWhitespace(sql.charAt(i + 2)) == true;
+	}
+
+	/**
+	 * @param nested PostgreSQL처럼 블록 주석 안의 블록 주석을 허용하는지
+	 * @return 주석이 끝난 다음 위치 (닫히지 않았으면 끝)
+	 */
+	private static int skipBlockComment(String sql, int start, boolean nested) {
+		int length = sql.length();
+		int depth = 1;
+		int i = start + 2;
+
+		while (i < length && depth > 0) {
+			if (nested == true && sql.startsWith("/*", i) == true) {
+				depth++;
+				i += 2;
+			} else if (sql.startsWith("*/", i) == true) {
+				depth--;
+				i += 2;
+			} else {
+				i++;
+			}
+		}
+
+		return Math.min(i, length);
+	}
+
+	/**
+	 * PostgreSQL의 $$...$$ / $tag$...$tag$ 문자열을 건너뜀.
+	 *
+	 * @return 닫는 태그 다음 위치 (닫히지 않았으면 끝), $1 같은 파라미터처럼 dollar quote가 아니면 start
+	 */
+	private static int skipDollarQuoted(String sql, int start) {
+		int length = sql.length();
+		int i = start + 1;
+
+		if (i < length && (Character.isLetter(sql.charAt(i)) == true || sql.charAt(i) == '_')) {
+			while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) == true || sql.charAt(i) == '_')) {
+				i++;
+			}
+		}
+
+		if (i >= length || sql.charAt(i) != '$') {
+			return start;
+		}
+
+		String tag = sql.substring(start, i + 1);
+		int close = sql.indexOf(tag, i + 1);
+
+		return close < 0 ? length : close + tag.length();
+	}
+
+	private static boolean isIdentifierChar(char c) {
+		return Character.isLetterOrDigit(c) == true || c == '_' || c == '$';
+	}
+
+	private static long envLong(String name, long defaultValue) {
+		String value = System.getenv(name);
+
+		if (value == null || value.isEmpty() == true) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			MyPrint.printf(e.getMessage());
+
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.chungho.snippet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+/*
+ * 미리 초기화하는 백엔드가 모두 준비되기 전까지 /healthCheck가 503인지 (실제 DB 대신 latch로 막아 두는 가짜 백엔드 사용).
+ */
+class BackendInitializerTests {
+
+	@Test
+	void notReadyUntilEveryBackendIsReady() throws Exception {
+		CountDownLatch mysql = new CountDownLatch(1);
+		CountDownLatch redis = new CountDownLatch(1);
+
+		Map<String, BackendInitializer.Initializer> backends = new LinkedHashMap<>();
+		backends.put("mysql", mysql::await);
+		backends.put("redis", redis::await);
+
+		BackendInitializer initializer = new BackendInitializer(backends);
+		HealthCheckController controller = new HealthCheckController(initializer);
+
+		try {
+			initializer.afterPropertiesSet();
+
+			assertFalse(initializer.isReady());
+			assertNotReady(controller.health());
+
+			mysql.countDown();
+			waitUntil(() -> initializer.getStates().get("mysql") == BackendInitializer.State.READY);
+
+			assertFalse(initializer.isReady());
+			assertEquals(BackendInitializer.State.PENDING, initializer.getStates().get("redis"));
+			assertNotReady(controller.health());
+
+			redis.countDown();
+			waitUntil(initializer::isReady);
+
+			ResponseEntity<String> response = controller.health();
+
+			assertEquals(200, response.getStatusCode().value());
+			assertEquals("OK", response.getBody());
+		} finally {
+			mysql.countDown();
+			redis.countDown();
+			initializer.destroy();
+		}
+	}
+
+	@Test
+	void failedBackendIsRetriedBeforeReady() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+
+		Map<String, BackendInitializer.Initializer> backends = new LinkedHashMap<>();
+		backends.put("postgresql", () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("connection refused");
+			}
+		});
+
+		BackendInitializer initializer = new BackendInitializer(backends);
+		HealthCheckController controller = new HealthCheckController(initializer);
+
+		try {
+			initializer.afterPropertiesSet();
+
+			// 첫 재시도는 1초 뒤이므로 그 전까지는 503
+			waitUntil(() -> initializer.getStates().get("postgresql") == BackendInitializer.State.RETRYING);
+			assertNotReady(controller.health());
+
+			waitUntil(initializer::isReady);
+
+			assertEquals(2, attempts.get());
+			assertEquals(200, controller.health().getStatusCode().value());
+		} finally {
+			initializer.destroy();
+		}
+	}
+
+	@Test
+	void readyWithoutBackends() {
+		BackendInitializer initializer = new BackendInitializer(Map.of());
+		initializer.afterPropertiesSet();
+
+		assertTrue(initializer.isReady());
+		assertEquals(200, new HealthCheckController(initializer).health().getStatusCode().value());
+	}
+
+	private static void assertNotReady(ResponseEntity<String> response) {
+		assertEquals(503, response.getStatusCode().value());
+		assertTrue(response.getBody().startsWith("NOT READY"), response.getBody());
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+		while (condition.getAsBoolean() == false) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(10);
+		}
+	}
+}
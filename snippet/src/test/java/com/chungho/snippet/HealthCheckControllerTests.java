@@ -0,0 +1,31 @@
+package com.chungho.snippet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * 설정된 백엔드가 없는 기본 배포 (빈 PostgreSQL URL, MySQL 드라이버 없음)에서는 헬스 체크가 바로 200이어야 함.
+ * 백엔드가 준비될 때까지 503인 경우는 BackendInitializerTests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class HealthCheckControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void healthyWithoutStartupBackends() throws Exception {
+		mockMvc.perform(get("/healthCheck"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("OK"));
+	}
+
+}
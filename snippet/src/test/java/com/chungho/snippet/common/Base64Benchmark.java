@@ -0,0 +1,158 @@
+package com.chungho.snippet.common;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Base64 vs java.util.Base64 기본 인코더/디코더 비교 (JMH, JUnit 테스트 아님 - main으로 직접 실행).
+ *  - jdk*          : java.util.Base64 (매번 결과 배열 할당)
+ *  - ours*Array    : Base64.encode/decode(byte[], Mode) (결과 배열 할당)
+ *  - ours*Into     : 호출자가 준 byte[]에 쓰기 (할당 없음)
+ *  - ours*Direct   : 다이렉트 ByteBuffer에 쓰기
+ *  - legacy*String : 기존 String <-> String 헬퍼 (Crypto 등 기존 호출 경로)
+ *
+ * 실행: mvn test-compile 후
+ *  java -cp target/test-classes:target/classes:<테스트 클래스패스> com.chungho.snippet.common.Base64Benchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+	@Param({ "64", "1024", "65536" })
+	public int size;
+
+	@Param({ "BASIC", "URL", "MIME" })
+	public String mode;
+
+	private Base64.Mode ourMode;
+	private java.util.Base64.Encoder jdkEncoder;
+	private java.util.Base64.Decoder jdkDecoder;
+
+	private byte[] plain;
+	private byte[] encoded;
+	private String plainString;
+	private String encodedString;
+
+	private byte[] encodeOut;
+	private byte[] decodeOut;
+	private ByteBuffer plainDirect;
+	private ByteBuffer encodedDirect;
+	private ByteBuffer encodeOutDirect;
+	private ByteBuffer decodeOutDirect;
+
+	@Setup
+	public void setup() {
+		ourMode = Base64.Mode.valueOf(mode);
+		jdkEncoder = switch (ourMode) {
+			case URL -> java.util.Base64.getUrlEncoder();
+			case MIME -> java.util.Base64.getMimeEncoder();
+			default -> java.util.Base64.getEncoder();
+		};
+		jdkDecoder = switch (ourMode) {
+			case URL -> java.util.Base64.getUrlDecoder();
+			case MIME -> java.util.Base64.getMimeDecoder();
+			default -> java.util.Base64.getDecoder();
+		};
+
+		plain = new byte[size];
+		new Random(size).nextBytes(plain);
+		encoded = jdkEncoder.encode(plain);
+
+		// 레거시 String 헬퍼는 UTF-8 문자열 기준이므로 ASCII 문자열로 비교
+		char[] chars = new char[size];
+
+		for (int i = 0; i < size; i++) {
+			chars[i] = (char) ('a' + (plain[i] & 0x0f));
+		}
+
+		plainString = new String(chars);
+		encodedString = Base64.encoding(plainString);
+
+		encodeOut = new byte[Base64.encodedLength(size, ourMode)];
+		decodeOut = new byte[size];
+
+		plainDirect = ByteBuffer.allocateDirect(size);
+		plainDirect.put(plain).flip();
+		encodedDirect = ByteBuffer.allocateDirect(encoded.length);
+		encodedDirect.put(encoded).flip();
+		encodeOutDirect = ByteBuffer.allocateDirect(encodeOut.length);
+		decodeOutDirect = ByteBuffer.allocateDirect(size);
+	}
+
+	@Benchmark
+	public byte[] jdkEncode() {
+		return jdkEncoder.encode(plain);
+	}
+
+	@Benchmark
+	public byte[] oursEncodeArray() {
+		return Base64.encode(plain, ourMode);
+	}
+
+	@Benchmark
+	public int oursEncodeInto() {
+		return Base64.encode(plain, 0, plain.length, encodeOut, 0, ourMode);
+	}
+
+	@Benchmark
+	public int oursEncodeDirect() {
+		plainDirect.rewind();
+		encodeOutDirect.clear();
+
+		return Base64.encode(plainDirect, encodeOutDirect, ourMode);
+	}
+
+	@Benchmark
+	public byte[] jdkDecode() {
+		return jdkDecoder.decode(encoded);
+	}
+
+	@Benchmark
+	public byte[] oursDecodeArray() {
+		return Base64.decode(encoded, ourMode);
+	}
+
+	@Benchmark
+	public int oursDecodeInto() {
+		return Base64.decode(encoded, 0, encoded.length, decodeOut, 0, ourMode);
+	}
+
+	@Benchmark
+	public int oursDecodeDirect() {
+		encodedDirect.rewind();
+		decodeOutDirect.clear();
+
+		return Base64.decode(encodedDirect, decodeOutDirect, ourMode);
+	}
+
+	@Benchmark
+	public String legacyEncodeString() {
+		return Base64.encoding(plainString);
+	}
+
+	@Benchmark
+	public String legacyDecodeString() {
+		return Base64.decoding(encodedString);
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(new String[] { Base64Benchmark.class.getName() });
+	}
+}
@@ -0,0 +1,215 @@
+package com.chungho.snippet.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Base64 결과가 java.util.Base64 (BASIC / URL / MIME)와 같은지 확인.
+ */
+class Base64Test {
+
+	// 패딩 0/1/2개, MIME 줄바꿈 경계(57바이트 = 76자) 전후를 모두 포함
+	private static final int[] LENGTHS = { 0, 1, 2, 3, 4, 5, 56, 57, 58, 113, 114, 115, 1000, 4096 };
+
+	@Test
+	void encodeMatchesJdk() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			for (int length : LENGTHS) {
+				byte[] src = randomBytes(length);
+				byte[] expected = jdkEncoder(mode).encode(src);
+
+				assertArrayEquals(expected, Base64.encode(src, mode), mode + " / " + length);
+				assertEquals(expected.length, Base64.encodedLength(length, mode), mode + " / " + length);
+			}
+		}
+	}
+
+	@Test
+	void decodeMatchesJdk() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			for (int length : LENGTHS) {
+				byte[] src = randomBytes(length);
+				byte[] encoded = jdkEncoder(mode).encode(src);
+
+				assertArrayEquals(src, Base64.decode(encoded, mode), mode + " / " + length);
+				assertEquals(length, Base64.decodedLength(encoded, 0, encoded.length, mode), mode + " / " + length);
+			}
+		}
+	}
+
+	@Test
+	void offsetsAndExactBuffers() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			byte[] src = randomBytes(100);
+			byte[] expected = jdkEncoder(mode).encode(src);
+
+			// 앞뒤에 여유 공간이 있는 버퍼의 중간에 쓰기
+			byte[] encoded = new byte[expected.length + 10];
+			int written = Base64.encode(src, 0, src.length, encoded, 5, mode);
+
+			assertEquals(expected.length, written);
+			assertArrayEquals(expected, java.util.Arrays.copyOfRange(encoded, 5, 5 + written));
+
+			// 디코딩 결과 길이와 딱 맞는 버퍼
+			byte[] decoded = new byte[src.length];
+			assertEquals(src.length, Base64.decode(encoded, 5, written, decoded, 0, mode));
+			assertArrayEquals(src, decoded);
+		}
+	}
+
+	@Test
+	void undersizedBufferThrowsIllegalArgument() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			byte[] src = randomBytes(100);
+			byte[] encoded = jdkEncoder(mode).encode(src);
+
+			assertThrows(IllegalArgumentException.class,
+					() -> Base64.encode(src, 0, src.length, new byte[encoded.length - 1], 0, mode));
+			assertThrows(IllegalArgumentException.class,
+					() -> Base64.decode(encoded, 0, encoded.length, new byte[src.length - 1], 0, mode));
+			assertThrows(IllegalArgumentException.class,
+					() -> Base64.decode(ByteBuffer.wrap(encoded), ByteBuffer.allocate(src.length - 1), mode));
+		}
+	}
+
+	@Test
+	void byteBuffersMatchJdk() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			for (int length : LENGTHS) {
+				byte[] src = randomBytes(length);
+				byte[] expected = jdkEncoder(mode).encode(src);
+
+				for (boolean direct : new boolean[] { false, true }) {
+					ByteBuffer in = buffer(src, direct);
+					ByteBuffer encoded = direct == true
+							? ByteBuffer.allocateDirect(Base64.encodedLength(length, mode))
+							: ByteBuffer.allocate(Base64.encodedLength(length, mode));
+
+					Base64.encode(in, encoded, mode);
+					encoded.flip();
+
+					assertEquals(0, in.remaining());
+					assertArrayEquals(expected, toArray(encoded.duplicate()), mode + " / " + length + " / " + direct);
+
+					ByteBuffer decoded = direct == true ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+					Base64.decode(encoded, decoded, mode);
+					decoded.flip();
+
+					assertArrayEquals(src, toArray(decoded), mode + " / " + length + " / " + direct);
+				}
+			}
+		}
+	}
+
+	@Test
+	void streamsMatchJdk() throws Exception {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			byte[] src = randomBytes(10_000);
+			ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+			try (OutputStream out = Base64.wrap(encoded, mode)) {
+				out.write(src, 0, 3333);
+				out.write(src, 3333, src.length - 3333);
+			}
+
+			assertArrayEquals(jdkEncoder(mode).encode(src), encoded.toByteArray(), mode.toString());
+
+			try (InputStream in = Base64.wrap(new ByteArrayInputStream(encoded.toByteArray()), mode)) {
+				assertArrayEquals(src, in.readAllBytes(), mode.toString());
+			}
+		}
+	}
+
+	@Test
+	void legacyStringHelpers() {
+		String text = "안녕하세요 base64 {\"id\":1}";
+		String encoded = Base64.encoding(text);
+
+		assertEquals(java.util.Base64.getEncoder().encodeToString(text.getBytes(java.nio.charset.StandardCharsets.UTF_8)), encoded);
+		assertEquals(text, Base64.decoding(encoded));
+	}
+
+	@Test
+	void invalidInputThrows() {
+		byte[] bad = "ab$d".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+
+		assertThrows(IllegalArgumentException.class, () -> Base64.decode(bad, Base64.Mode.BASIC));
+		assertThrows(IllegalArgumentException.class, () -> Base64.decode("QQ==QQ".getBytes(), Base64.Mode.BASIC));
+	}
+
+	// 패딩 개수 / 위치가 잘못된 입력, 패딩 없는 입력, 패딩 뒤 문자: JDK가 거부하면 같이 거부하고 받아들이면 결과가 같아야 함
+	private static final String[] EDGE_INPUTS = {
+			"", "=", "==", "Q", "QQ", "QUI", "QUJD", "QUJDQ",
+			"QQ=", "QQ==", "QQ===", "QUI=", "QUI==", "QUJD=", "QUJD==", "Q=", "Q==", "Q===",
+			"QQ=a", "QQ==a", "QUI=a", "QQ==QQ==", "=QQ", "QQ==\r\n", "QQ==\r\nQUI=", "QUJD\r\nQQ=", "QUJD\r\nQ", "QUJD\r\n=",
+			"QQ==$", "QUJD$QQ==", "QU JD",
+	};
+
+	@Test
+	void malformedInputMatchesJdk() {
+		for (Base64.Mode mode : Base64.Mode.values()) {
+			for (String input : EDGE_INPUTS) {
+				byte[] encoded = input.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+				byte[] expected;
+
+				try {
+					expected = jdkDecoder(mode).decode(encoded);
+				} catch (IllegalArgumentException e) {
+					assertThrows(IllegalArgumentException.class, () -> Base64.decode(encoded, mode), mode + " / " + input);
+					assertThrows(IllegalArgumentException.class, () -> Base64.decode(ByteBuffer.wrap(encoded), ByteBuffer.allocate(16), mode),
+							mode + " / " + input);
+					continue;
+				}
+
+				assertArrayEquals(expected, Base64.decode(encoded, mode), mode + " / " + input);
+			}
+		}
+	}
+
+	private static java.util.Base64.Encoder jdkEncoder(Base64.Mode mode) {
+		return switch (mode) {
+			case URL -> java.util.Base64.getUrlEncoder();
+			case MIME -> java.util.Base64.getMimeEncoder();
+			default -> java.util.Base64.getEncoder();
+		};
+	}
+
+	private static java.util.Base64.Decoder jdkDecoder(Base64.Mode mode) {
+		return switch (mode) {
+			case URL -> java.util.Base64.getUrlDecoder();
+			case MIME -> java.util.Base64.getMimeDecoder();
+			default -> java.util.Base64.getDecoder();
+		};
+	}
+
+	private static byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+
+		return bytes;
+	}
+
+	private static ByteBuffer buffer(byte[] src, boolean direct) {
+		ByteBuffer buffer = direct == true ? ByteBuffer.allocateDirect(src.length) : ByteBuffer.allocate(src.length);
+		buffer.put(src).flip();
+
+		return buffer;
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+
+		return bytes;
+	}
+}
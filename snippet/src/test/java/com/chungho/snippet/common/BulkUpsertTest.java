@@ -0,0 +1,197 @@
+package com.chungho.snippet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * BulkUpsert의 SQL 생성과 문장 나누기 (DB 없이 PreparedStatement를 기록만 하는 가짜 Connection 사용).
+ */
+class BulkUpsertTest {
+
+	static class Row {
+		long id;
+		String name;
+		int score;
+
+		Row(long id, String name, int score) {
+			this.id = id;
+			this.name = name;
+			this.score = score;
+		}
+	}
+
+	// 실행된 문장 하나 (SQL, 바인드한 파라미터 수)
+	static class Executed {
+		final String sql;
+		int parameters;
+
+		Executed(String sql) {
+			this.sql = sql;
+		}
+
+		int rows() {
+			return sql.split("\\(\\?", -1).length - 1;
+		}
+	}
+
+	private static final Field[] FIELDS = BulkUpsert.fieldsOf(Row.class);
+
+	@Test
+	void mysqlStatement() {
+		String head = BulkUpsert.buildHead(BulkUpsert.Dialect.MYSQL, "scores", FIELDS);
+		String tail = BulkUpsert.buildTail(BulkUpsert.Dialect.MYSQL, FIELDS, List.of("id"));
+
+		assertEquals("INSERT INTO scores (`id`, `name`, `score`) VALUES (?, ?, ?), (?, ?, ?)"
+				+ " ON DUPLICATE KEY UPDATE `name` = VALUES(`name`), `score` = VALUES(`score`)",
+				BulkUpsert.buildStatement(head, tail, FIELDS.length, 2));
+	}
+
+	@Test
+	void postgresqlStatement() {
+		String head = BulkUpsert.buildHead(BulkUpsert.Dialect.POSTGRESQL, "scores", FIELDS);
+		String tail = BulkUpsert.buildTail(BulkUpsert.Dialect.POSTGRESQL, FIELDS, List.of("ID"));
+
+		assertEquals("INSERT INTO scores (\"id\", \"name\", \"score\") VALUES (?, ?, ?)"
+				+ " ON CONFLICT (\"id\") DO UPDATE SET \"name\" = EXCLUDED.\"name\", \"score\" = EXCLUDED.\"score\"",
+				BulkUpsert.buildStatement(head, tail, FIELDS.length, 1));
+	}
+
+	@Test
+	void allColumnsAreKeys() {
+		List<String> keys = List.of("id", "name", "score");
+
+		assertEquals(" ON DUPLICATE KEY UPDATE `id` = `id`", BulkUpsert.buildTail(BulkUpsert.Dialect.MYSQL, FIELDS, keys));
+		assertEquals(" ON CONFLICT (\"id\", \"name\", \"score\") DO NOTHING", BulkUpsert.buildTail(BulkUpsert.Dialect.POSTGRESQL, FIELDS, keys));
+	}
+
+	@Test
+	void postgresqlRequiresKeyColumns() {
+		List<Executed> executed = new ArrayList<>();
+
+		assertThrows(IllegalArgumentException.class, () -> BulkUpsert.execute(connection(executed), BulkUpsert.Dialect.POSTGRESQL,
+				"scores", rows(10, 1), List.of(), Long.MAX_VALUE, stmt -> { }));
+		assertThrows(IllegalArgumentException.class, () -> BulkUpsert.execute(connection(executed), BulkUpsert.Dialect.POSTGRESQL,
+				"scores", rows(10, 1), null, Long.MAX_VALUE, stmt -> { }));
+		assertEquals(0, executed.size());
+	}
+
+	@Test
+	void splitsByParameterLimit() throws Exception {
+		// 컬럼 3개: PostgreSQL 32767 / 3 = 10922행, MySQL 65535 / 3 = 21845행
+		assertEquals(List.of(10922, 10922, 8156), rowsPerStatement(BulkUpsert.Dialect.POSTGRESQL, rows(30000, 1), Long.MAX_VALUE));
+		assertEquals(List.of(21845, 8155), rowsPerStatement(BulkUpsert.Dialect.MYSQL, rows(30000, 1), Long.MAX_VALUE));
+	}
+
+	@Test
+	void splitsByStatementBytes() throws Exception {
+		for (BulkUpsert.Dialect dialect : BulkUpsert.Dialect.values()) {
+			List<Executed> executed = new ArrayList<>();
+			int statements = BulkUpsert.execute(connection(executed), dialect, "scores", rows(100, 100), List.of("id"), 2000, stmt -> { });
+
+			assertEquals(statements, executed.size());
+			assertTrue(statements > 1, dialect.toString());
+
+			int total = 0;
+
+			for (Executed stmt : executed) {
+				assertEquals(stmt.rows() * FIELDS.length, stmt.parameters);
+				assertTrue(stmt.rows() >= 1);
+				total += stmt.rows();
+			}
+
+			assertEquals(100, total);
+		}
+	}
+
+	@Test
+	void oversizedRowGetsItsOwnStatement() throws Exception {
+		List<Integer> counts = rowsPerStatement(BulkUpsert.Dialect.MYSQL, rows(3, 1000), 10);
+
+		assertEquals(List.of(1, 1, 1), counts);
+	}
+
+	@Test
+	void trackerSeesEveryStatementAndCanStopTheRest() throws Exception {
+		List<Executed> executed = new ArrayList<>();
+		List<PreparedStatement> tracked = new ArrayList<>();
+
+		int statements = BulkUpsert.execute(connection(executed), BulkUpsert.Dialect.MYSQL, "scores", rows(30000, 1), List.of("id"),
+				Long.MAX_VALUE, stmt -> tracked.add((PreparedStatement) stmt));
+
+		assertEquals(statements, tracked.size());
+
+		// 두 번째 문장에서 취소된 경우
+		executed.clear();
+		int[] calls = { 0 };
+
+		assertThrows(SQLException.class, () -> BulkUpsert.execute(connection(executed), BulkUpsert.Dialect.POSTGRESQL, "scores", rows(30000, 1),
+				List.of("id"), Long.MAX_VALUE, stmt -> {
+					if (++calls[0] == 2) {
+						throw new SQLException("Query cancelled");
+					}
+				}));
+		assertEquals(1, executed.stream().filter(stmt -> stmt.parameters > 0).count());
+	}
+
+	private static List<Integer> rowsPerStatement(BulkUpsert.Dialect dialect, List<Row> rows, long maxStatementBytes) throws Exception {
+		List<Executed> executed = new ArrayList<>();
+		BulkUpsert.execute(connection(executed), dialect, "scores", rows, List.of("id"), maxStatementBytes, stmt -> { });
+
+		List<Integer> counts = new ArrayList<>();
+
+		for (Executed stmt : executed) {
+			assertEquals(stmt.rows() * FIELDS.length, stmt.parameters);
+			counts.add(stmt.rows());
+		}
+
+		return counts;
+	}
+
+	private static List<Row> rows(int count, int nameLength) {
+		List<Row> rows = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			rows.add(new Row(i, "n".repeat(nameLength), i % 100));
+		}
+
+		return rows;
+	}
+
+	// prepareStatement로 만든 문장을 executed에 기록 (setObject 횟수만 셈, executeUpdate는 0행)
+	private static Connection connection(List<Executed> executed) {
+		return (Connection) Proxy.newProxyInstance(BulkUpsertTest.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+			if (method.getName().equals("prepareStatement") == false) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+
+			Executed stmt = new Executed((String) args[0]);
+			executed.add(stmt);
+
+			return Proxy.newProxyInstance(BulkUpsertTest.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, (p, m, a) -> {
+				switch (m.getName()) {
+					case "setObject":
+						stmt.parameters++;
+						return null;
+					case "executeUpdate":
+						return 0;
+					case "close":
+					case "setQueryTimeout":
+						return null;
+					default:
+						throw new UnsupportedOperationException(m.getName());
+				}
+			});
+		});
+	}
+}
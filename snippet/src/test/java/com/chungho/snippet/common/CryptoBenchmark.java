@@ -0,0 +1,158 @@
+package com.chungho.snippet.common;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Crypto 요청 1건당 비용 비교 (JMH, JUnit 테스트 아님 - main으로 직접 실행).
+ *  - before*: 키 캐시 이전 방식 (요청마다 PEM 파싱 + Cipher.getInstance + new SecureRandom)
+ *  - after* : 현재 방식 (파싱된 키 캐시 + 스레드별 Cipher + 공유 SecureRandom)
+ *
+ * 실행: mvn test-compile 후
+ *  java -cp target/test-classes:target/classes:<테스트 클래스패스> com.chungho.snippet.common.CryptoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+
+	private static final String REQUEST = "{\"userId\":12345,\"name\":\"benchmark\",\"items\":[1,2,3,4,5]}";
+
+	private static final SecureRandom SHARED_RANDOM = new SecureRandom();
+
+	private static final ThreadLocal<Cipher> CACHED_CIPHER = ThreadLocal.withInitial(() -> {
+		try {
+			return Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private String privatePem;
+	private String body;
+	private byte[] encryptedAesKey;
+
+	@Setup
+	public void setup() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+
+		privatePem = toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
+		String publicPem = toPem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+
+		Crypto.RSA.reload(privatePem);
+
+		// rsaPubKey는 setter가 없으므로 리플렉션으로 설정 (클라이언트 역할)
+		Crypto client = new Crypto();
+		Field field = Crypto.class.getDeclaredField("rsaPubKey");
+		field.setAccessible(true);
+		field.set(client, publicPem);
+
+		body = client.encryptWithRsa(REQUEST);
+
+		Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+		cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+		encryptedAesKey = cipher.doFinal(new byte[32]);
+	}
+
+	/*
+	 * 요청 복호화 전체 (키/Cipher 캐시 사용).
+	 */
+	@Benchmark
+	public Map<?, ?> afterDecrypt() throws Exception {
+		return new Crypto().decrypt(body, Map.class);
+	}
+
+	/*
+	 * 요청 복호화 전체 (매번 키를 다시 파싱 - 키 교체 직후 또는 캐시 이전과 같은 상황).
+	 */
+	@Benchmark
+	public Map<?, ?> beforeDecrypt() throws Exception {
+		Crypto.RSA.reload(privatePem);
+
+		return new Crypto().decrypt(body, Map.class);
+	}
+
+	/*
+	 * RSA 키 복호화 한 번 (캐시된 키 + 스레드별 Cipher).
+	 */
+	@Benchmark
+	public byte[] afterRsaUnwrap() throws Exception {
+		PrivateKey key = Crypto.RSA.getPrivateKey();
+		Cipher cipher = CACHED_CIPHER.get();
+		cipher.init(Cipher.DECRYPT_MODE, key);
+
+		return cipher.doFinal(encryptedAesKey);
+	}
+
+	/*
+	 * RSA 키 복호화 한 번 (캐시 이전 방식: PEM 파싱 + Cipher.getInstance).
+	 */
+	@Benchmark
+	public byte[] beforeRsaUnwrap() throws Exception {
+		String rsaTrim = privatePem
+				.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+				.replace("\r", "")
+				.replace("\n", "")
+				.trim();
+
+		PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(java.util.Base64.getDecoder().decode(rsaTrim));
+		PrivateKey key = KeyFactory.getInstance("RSA").generatePrivate(spec);
+
+		Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+		cipher.init(Cipher.DECRYPT_MODE, key);
+
+		return cipher.doFinal(encryptedAesKey);
+	}
+
+	@Benchmark
+	public byte[] afterRandom() {
+		byte[] bytes = new byte[32];
+		SHARED_RANDOM.nextBytes(bytes);
+
+		return bytes;
+	}
+
+	@Benchmark
+	public byte[] beforeRandom() {
+		byte[] bytes = new byte[32];
+		new SecureRandom().nextBytes(bytes);
+
+		return bytes;
+	}
+
+	private static String toPem(String type, byte[] der) {
+		String base64 = new String(java.util.Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encode(der), StandardCharsets.US_ASCII);
+
+		return "-----BEGIN " + type + "-----\n" + base64 + "\n-----END " + type + "-----\n";
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(new String[] { CryptoBenchmark.class.getName() });
+	}
+}
@@ -0,0 +1,193 @@
+package com.chungho.snippet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * DynamoDBItemCache의 캐시 / negative 캐시 / 무효화 / 동시 miss 합치기 (DynamoDB 없이 Loader만 사용).
+ */
+class DynamoDBItemCacheTest {
+
+	private static final String TABLE = "users";
+
+	@Test
+	void cachesLoadedItem() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals("{\"id\":1}", cache.get(TABLE, "id", "1", () -> load(loads, "{\"id\":1}")));
+		assertEquals("{\"id\":1}", cache.get(TABLE, "id", "1", () -> load(loads, "changed")));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	void disabledWithoutTtl() throws Exception {
+		DynamoDBItemCache cache = new DynamoDBItemCache(100);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(TABLE, "id", "1", () -> load(loads, "a"));
+		cache.get(TABLE, "id", "1", () -> load(loads, "a"));
+
+		assertEquals(2, loads.get());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void cachesMissingItem() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+
+		assertNull(cache.get(TABLE, "id", "404", () -> load(loads, null)));
+		assertNull(cache.get(TABLE, "id", "404", () -> load(loads, "created")));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getNegativeHits());
+
+		// negative 엔트리는 negativeTtlMillis가 지나면 다시 읽음
+		cache.setNegativeTtlMillis(1);
+		cache.invalidate(TABLE, "id", "404");
+		assertNull(cache.get(TABLE, "id", "404", () -> load(loads, null)));
+		Thread.sleep(5);
+		assertEquals("created", cache.get(TABLE, "id", "404", () -> load(loads, "created")));
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	void invalidateDropsEntry() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(TABLE, "id", "1", () -> load(loads, "old"));
+		cache.invalidate(TABLE, "id", "1");
+
+		assertEquals("new", cache.get(TABLE, "id", "1", () -> load(loads, "new")));
+
+		cache.invalidateAll();
+
+		assertEquals("newer", cache.get(TABLE, "id", "1", () -> load(loads, "newer")));
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	void writeDuringLoadIsNotOverwrittenByStaleValue() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+
+		// 읽은 직후, 저장하기 전에 put(무효화)이 들어온 경우
+		assertEquals("old", cache.get(TABLE, "id", "1", () -> {
+			String json = load(loads, "old");
+			cache.invalidate(TABLE, "id", "1");
+			return json;
+		}));
+		assertEquals(0, cache.size());
+		assertEquals("new", cache.get(TABLE, "id", "1", () -> load(loads, "new")));
+
+		// invalidateAll도 같음
+		cache.invalidateAll();
+		cache.get(TABLE, "id", "2", () -> {
+			String json = load(loads, "old");
+			cache.invalidateAll();
+			return json;
+		});
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void concurrentMissesLoadOnce() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<String>> results = new ArrayList<>();
+
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> cache.get(TABLE, "id", "1", () -> {
+					release.await();
+					return load(loads, "v");
+				})));
+			}
+
+			// 나머지 스레드가 모두 진행 중인 load에 붙을 때까지 기다렸다가 풀어줌
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+			while (cache.getCoalesced() < threads - 1 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("v", result.get(5, TimeUnit.SECONDS));
+			}
+
+			assertEquals(1, loads.get());
+			assertEquals(threads - 1, cache.getCoalesced());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void loadFailureIsNotCached() throws Exception {
+		DynamoDBItemCache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThrows(IllegalStateException.class, () -> cache.get(TABLE, "id", "1", () -> {
+			loads.incrementAndGet();
+			throw new IllegalStateException("throttled");
+		}));
+
+		assertEquals("v", cache.get(TABLE, "id", "1", () -> load(loads, "v")));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() throws Exception {
+		DynamoDBItemCache cache = new DynamoDBItemCache(2);
+		cache.setDefaultTtlMillis(60_000);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(TABLE, "id", "1", () -> load(loads, "1"));
+		cache.get(TABLE, "id", "2", () -> load(loads, "2"));
+		cache.get(TABLE, "id", "1", () -> load(loads, "1"));
+		cache.get(TABLE, "id", "3", () -> load(loads, "3"));
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+
+		// 2가 밀려나고 1은 남아 있음
+		cache.get(TABLE, "id", "1", () -> load(loads, "1"));
+		assertEquals(3, loads.get());
+		cache.get(TABLE, "id", "2", () -> load(loads, "2"));
+		assertEquals(4, loads.get());
+	}
+
+	private static DynamoDBItemCache cache() {
+		DynamoDBItemCache cache = new DynamoDBItemCache(100);
+		cache.setTableTtlMillis(TABLE, 60_000);
+
+		return cache;
+	}
+
+	private static String load(AtomicInteger loads, String json) {
+		loads.incrementAndGet();
+
+		return json;
+	}
+}
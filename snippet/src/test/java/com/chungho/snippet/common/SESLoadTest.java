@@ -0,0 +1,131 @@
+package com.chungho.snippet.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * SES.sendEmail 부하 테스트 (로컬 SESStubServer 대상, JUnit 테스트 아님 - main으로 직접 실행).
+ * 묶음 크기 x 동시 요청 수 조합별로 초당 수신자 수와 sendEmail 호출 지연 분포(p50/p90/p99/max)를 출력.
+ *
+ * 인자 (모두 생략 가능)
+ *  [수신자 수/호출] [호출 횟수] [동시 호출 스레드] [묶음 크기 목록] [동시 요청 수 목록] [스텁 지연 ms] [스텁 쓰로틀 확률] [수신자별 실패 확률]
+ *  예) 5000 20 4 10,25,50 4,8,16 20 0.01 0.01
+ */
+public class SESLoadTest {
+
+	private static final String TEMPLATE_NAME = "load-test";
+
+	public static void main(String[] args) throws Exception {
+		int recipientsPerCall = intArg(args, 0, 5000);
+		int calls = intArg(args, 1, 20);
+		int callerThreads = intArg(args, 2, 4);
+		int[] batchSizes = listArg(args, 3, new int[] { 10, 25, 50 });
+		int[] inFlightCounts = listArg(args, 4, new int[] { 4, 8, 16 });
+
+		try (SESStubServer stub = new SESStubServer(0, 64).start()) {
+			stub.latencyMillis = args.length > 5 ? Long.parseLong(args[5]) : 20;
+			stub.throttleRate = args.length > 6 ? Double.parseDouble(args[6]) : 0.0;
+			stub.entryFailureRate = args.length > 7 ? Double.parseDouble(args[7]) : 0.0;
+
+			SES.setEndpointOverride(stub.getEndpoint());
+
+			SES ses = new SES();
+			ses.createEmailTemplate(true, TEMPLATE_NAME, "Hello {{name}}", "Hi {{name}}", null);
+
+			List<SES.Recipient> recipients = new ArrayList<>(recipientsPerCall);
+
+			for (int i = 0; i < recipientsPerCall; i++) {
+				recipients.add(new SES.Recipient("user" + i + "@example.com", "user" + i));
+			}
+
+			System.out.printf("recipients/call=%d calls=%d callers=%d stubLatency=%dms throttle=%.3f entryFailure=%.3f%n",
+					recipientsPerCall, calls, callerThreads, stub.latencyMillis, stub.throttleRate, stub.entryFailureRate);
+			System.out.printf("%6s %8s %12s %8s %8s %8s %8s %10s %10s%n",
+					"batch", "inFlight", "recipients/s", "p50ms", "p90ms", "p99ms", "maxms", "failed", "throttled");
+
+			// 워밍업 (JIT, 커넥션 풀)
+			run(ses, recipients, 2, 1);
+
+			for (int batchSize : batchSizes) {
+				for (int inFlight : inFlightCounts) {
+					SES.setBulkBatchSize(batchSize);
+					SES.setMaxInFlightRequests(inFlight);
+					stub.resetCounters();
+
+					long start = System.nanoTime();
+					RunResult result = run(ses, recipients, calls, callerThreads);
+					double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+					System.out.printf("%6d %8d %12.0f %8.1f %8.1f %8.1f %8.1f %10d %10d%n",
+							batchSize, inFlight,
+							(double) recipientsPerCall * calls / seconds,
+							percentile(result.latenciesMillis, 50),
+							percentile(result.latenciesMillis, 90),
+							percentile(result.latenciesMillis, 99),
+							percentile(result.latenciesMillis, 100),
+							result.failed,
+							stub.throttledRequests.get());
+				}
+			}
+		}
+	}
+
+	private static class RunResult {
+		final List<Double> latenciesMillis = Collections.synchronizedList(new ArrayList<>());
+		long failed;
+	}
+
+	private static RunResult run(SES ses, List<SES.Recipient> recipients, int calls, int callerThreads) throws Exception {
+		RunResult result = new RunResult();
+		ExecutorService executor = Executors.newFixedThreadPool(callerThreads);
+
+		try {
+			List<Future<Long>> futures = new ArrayList<>(calls);
+
+			for (int i = 0; i < calls; i++) {
+				futures.add(executor.submit(() -> {
+					long start = System.nanoTime();
+					Map<String, Boolean> sent = ses.sendEmail("sender@example.com", TEMPLATE_NAME, recipients, "reply@example.com");
+					result.latenciesMillis.add((System.nanoTime() - start) / 1_000_000.0);
+
+					return sent.values().stream().filter(ok -> ok == false).count() + (recipients.size() - sent.size());
+				}));
+			}
+
+			for (Future<Long> future : futures) {
+				result.failed += future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		return result;
+	}
+
+	private static double percentile(List<Double> values, int percentile) {
+		List<Double> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+
+		if (sorted.isEmpty() == true) {
+			return 0;
+		}
+
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+
+		return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+	}
+
+	private static int intArg(String[] args, int index, int defaultValue) {
+		return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+	}
+
+	private static int[] listArg(String[] args, int index, int[] defaultValue) {
+		return args.length > index ? Arrays.stream(args[index].split(",")).mapToInt(Integer::parseInt).toArray() : defaultValue;
+	}
+}
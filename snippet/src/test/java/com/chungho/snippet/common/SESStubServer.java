@@ -0,0 +1,291 @@
+package com.chungho.snippet.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 부하 테스트용 로컬 SESv2 스텁 (실제 AWS 호출 없이 SES 래퍼를 테스트).
+ * SES.setEndpointOverride(server.getEndpoint()) 또는 환경변수 SES_ENDPOINT로 연결.
+ *
+ * 지원 API
+ *  - 템플릿 CRUD : POST/GET /v2/email/templates, GET/PUT/DELETE /v2/email/templates/{name}
+ *  - SendBulkEmail: POST /v2/email/outbound-bulk-emails
+ *  - GetAccount   : GET /v2/email/account (SendQuota.MaxSendRate)
+ *
+ * 설정
+ *  - latencyMillis      : SendBulkEmail 응답 지연 (± latencyJitterMillis)
+ *  - throttleRate       : 요청 전체를 429 TooManyRequestsException으로 거절할 확률
+ *  - entryFailureRate   : 수신자별 TRANSIENT_FAILURE 확률
+ *  - entryThrottleRate  : 수신자별 ACCOUNT_THROTTLED 확률
+ */
+public class SESStubServer implements AutoCloseable {
+
+	private static final String PATH_TEMPLATES = "/v2/email/templates";
+	private static final String PATH_BULK = "/v2/email/outbound-bulk-emails";
+	private static final String PATH_ACCOUNT = "/v2/email/account";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, ObjectNode> templates = new ConcurrentSkipListMap<>();
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	public volatile long latencyMillis = 20;
+	public volatile long latencyJitterMillis = 10;
+	public volatile double throttleRate = 0.0;
+	public volatile double entryFailureRate = 0.0;
+	public volatile double entryThrottleRate = 0.0;
+	public volatile double maxSendRate = 100_000;
+
+	public final AtomicLong bulkRequests = new AtomicLong();
+	public final AtomicLong throttledRequests = new AtomicLong();
+	public final AtomicLong acceptedEntries = new AtomicLong();
+
+	public SESStubServer(int port, int threads) throws IOException {
+		executor = Executors.newFixedThreadPool(threads);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+	}
+
+	public SESStubServer start() {
+		server.start();
+
+		return this;
+	}
+
+	public String getEndpoint() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public void resetCounters() {
+		bulkRequests.set(0);
+		throttledRequests.set(0);
+		acceptedEntries.set(0);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getPath();
+
+			if (path.equals(PATH_BULK) == true && method.equals("POST") == true) {
+				sendBulkEmail(exchange);
+			} else if (path.equals(PATH_ACCOUNT) == true && method.equals("GET") == true) {
+				ObjectNode quota = objectMapper.createObjectNode();
+				quota.put("Max24HourSend", 1_000_000_000);
+				quota.put("MaxSendRate", maxSendRate);
+				quota.put("SentLast24Hours", acceptedEntries.get());
+
+				ObjectNode body = objectMapper.createObjectNode();
+				body.set("SendQuota", quota);
+				body.put("SendingEnabled", true);
+				respond(exchange, 200, body);
+			} else if (path.equals(PATH_TEMPLATES) == true && method.equals("POST") == true) {
+				createTemplate(exchange);
+			} else if (path.equals(PATH_TEMPLATES) == true && method.equals("GET") == true) {
+				listTemplates(exchange);
+			} else if (path.startsWith(PATH_TEMPLATES + "/") == true) {
+				String name = URLDecoder.decode(path.substring(PATH_TEMPLATES.length() + 1), StandardCharsets.UTF_8);
+				templateByName(exchange, method, name);
+			} else {
+				error(exchange, 404, "NotFoundException", "Unknown operation " + method + " " + path);
+			}
+		} catch (Exception e) {
+			error(exchange, 500, "InternalFailure", String.valueOf(e.getMessage()));
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void sendBulkEmail(HttpExchange exchange) throws Exception {
+		bulkRequests.incrementAndGet();
+		JsonNode request = readBody(exchange);
+
+		long delay = latencyMillis + (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-latencyJitterMillis, latencyJitterMillis + 1) : 0);
+
+		if (delay > 0) {
+			TimeUnit.MILLISECONDS.sleep(delay);
+		}
+
+		if (ThreadLocalRandom.current().nextDouble() < throttleRate) {
+			throttledRequests.incrementAndGet();
+			error(exchange, 429, "TooManyRequestsException", "Maximum sending rate exceeded.");
+
+			return;
+		}
+
+		String templateName = request.path("DefaultContent").path("Template").path("TemplateName").asText();
+
+		if (templates.containsKey(templateName) == false) {
+			error(exchange, 404, "NotFoundException", "Template " + templateName + " does not exist.");
+
+			return;
+		}
+
+		ArrayNode results = objectMapper.createArrayNode();
+
+		for (JsonNode ignored : request.path("BulkEmailEntries")) {
+			ObjectNode result = results.addObject();
+			double roll = ThreadLocalRandom.current().nextDouble();
+
+			if (roll < entryThrottleRate) {
+				result.put("Status", "ACCOUNT_THROTTLED");
+				result.put("Error", "Maximum sending rate exceeded.");
+			} else if (roll < entryThrottleRate + entryFailureRate) {
+				result.put("Status", "TRANSIENT_FAILURE");
+				result.put("Error", "Transient failure.");
+			} else {
+				result.put("Status", "SUCCESS");
+				result.put("MessageId", UUID.randomUUID().toString());
+				acceptedEntries.incrementAndGet();
+			}
+		}
+
+		ObjectNode body = objectMapper.createObjectNode();
+		body.set("BulkEmailEntryResults", results);
+		respond(exchange, 200, body);
+	}
+
+	private void createTemplate(HttpExchange exchange) throws IOException {
+		JsonNode request = readBody(exchange);
+		String name = request.path("TemplateName").asText();
+		ObjectNode template = objectMapper.createObjectNode();
+		template.put("TemplateName", name);
+		template.set("TemplateContent", request.path("TemplateContent"));
+		template.put("CreatedTimestamp", System.currentTimeMillis() / 1000.0);
+
+		if (templates.putIfAbsent(name, template) != null) {
+			error(exchange, 400, "AlreadyExistsException", "Template " + name + " already exists.");
+
+			return;
+		}
+
+		respond(exchange, 200, objectMapper.createObjectNode());
+	}
+
+	private void listTemplates(HttpExchange exchange) throws IOException {
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+		int pageSize = Integer.parseInt(query.getOrDefault("PageSize", "10"));
+		String nextToken = query.get("NextToken");
+
+		List<String> names = new ArrayList<>(templates.keySet());
+		int start = nextToken == null ? 0 : Integer.parseInt(nextToken);
+		int end = Math.min(names.size(), start + pageSize);
+
+		ArrayNode metadata = objectMapper.createArrayNode();
+
+		for (String name : names.subList(Math.min(start, end), end)) {
+			ObjectNode meta = metadata.addObject();
+			meta.put("TemplateName", name);
+			meta.set("CreatedTimestamp", templates.get(name).get("CreatedTimestamp"));
+		}
+
+		ObjectNode body = objectMapper.createObjectNode();
+		body.set("TemplatesMetadata", metadata);
+
+		if (end < names.size()) {
+			body.put("NextToken", String.valueOf(end));
+		}
+
+		respond(exchange, 200, body);
+	}
+
+	private void templateByName(HttpExchange exchange, String method, String name) throws IOException {
+		ObjectNode template = templates.get(name);
+
+		if (template == null) {
+			error(exchange, 404, "NotFoundException", "Template " + name + " does not exist.");
+
+			return;
+		}
+
+		switch (method) {
+			case "GET" -> respond(exchange, 200, template);
+			case "PUT" -> {
+				ObjectNode updated = template.deepCopy();
+				updated.set("TemplateContent", readBody(exchange).path("TemplateContent"));
+				templates.put(name, updated);
+				respond(exchange, 200, objectMapper.createObjectNode());
+			}
+			case "DELETE" -> {
+				templates.remove(name);
+				respond(exchange, 200, objectMapper.createObjectNode());
+			}
+			default -> error(exchange, 405, "BadRequestException", "Unsupported method " + method);
+		}
+	}
+
+	private JsonNode readBody(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] bytes = in.readAllBytes();
+
+			return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+		}
+	}
+
+	private void error(HttpExchange exchange, int status, String errorType, String message) throws IOException {
+		exchange.getResponseHeaders().set("x-amzn-ErrorType", errorType);
+
+		ObjectNode body = objectMapper.createObjectNode();
+		body.put("message", message);
+		respond(exchange, status, body);
+	}
+
+	private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+		byte[] bytes = objectMapper.writeValueAsBytes(body);
+
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.getResponseHeaders().set("x-amzn-RequestId", UUID.randomUUID().toString());
+		exchange.sendResponseHeaders(status, bytes.length);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> query = new HashMap<>();
+
+		if (rawQuery == null || rawQuery.isEmpty() == true) {
+			return query;
+		}
+
+		for (String pair : rawQuery.split("&")) {
+			int eq = pair.indexOf('=');
+
+			if (eq > 0) {
+				query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+
+		return query;
+	}
+}
@@ -0,0 +1,55 @@
+package com.chungho.snippet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * SlowQueryLog.fingerprint: 리터럴과 주석이 지문에 남지 않아야 함 (/slowQueries 기본 응답에 그대로 나가므로).
+ */
+class SlowQueryLogTest {
+
+	@Test
+	void masksLiterals() {
+		assertEquals("select * from users where name = ? and age > ? and score = ?",
+				SlowQueryLog.fingerprint("mysql", "SELECT *  FROM users\n WHERE name = 'O''Brien' AND age > 30 AND score = 1.5"));
+		assertEquals("select * from t where a = ? and b = ?",
+				SlowQueryLog.fingerprint("mysql", "SELECT * FROM t WHERE a = 'it\\'s' AND b = \"secret\""));
+		assertEquals("select * from t2 where id in (?+)",
+				SlowQueryLog.fingerprint("mysql", "SELECT * FROM t2 WHERE id IN (1, 2, 3)"));
+	}
+
+	@Test
+	void doubleQuotesAreIdentifiersInPostgresql() {
+		assertEquals("select \"name\" from users where email = ?",
+				SlowQueryLog.fingerprint("postgresql", "SELECT \"Name\" FROM users WHERE email = 'a@b.c'"));
+	}
+
+	@Test
+	void stripsComments() {
+		assertEquals("select * from t where a = ? and b = ?",
+				SlowQueryLog.fingerprint("mysql", "SELECT * FROM t -- token=secret\nWHERE a = 1 /* user: secret */ AND b = 2 # secret"));
+		assertEquals("select * from t where a = ?",
+				SlowQueryLog.fingerprint("postgresql", "SELECT * FROM t /* outer /* inner secret */ secret */ WHERE a = 1 -- secret"));
+
+		// MySQL의 "--" 뒤에 공백이 없으면 주석이 아님, PostgreSQL의 #은 연산자
+		assertEquals("select a--? from t", SlowQueryLog.fingerprint("mysql", "SELECT a--1 FROM t"));
+		assertEquals("select a # b from t", SlowQueryLog.fingerprint("postgresql", "SELECT a # b FROM t"));
+	}
+
+	@Test
+	void masksDollarQuotedStringsInPostgresql() {
+		assertEquals("select ?, ?, $1 from t",
+				SlowQueryLog.fingerprint("postgresql", "SELECT $$secret$$, $tag$it's $$ secret$tag$, $1 FROM t"));
+	}
+
+	@Test
+	void unterminatedInputDoesNotLeak() {
+		for (String sql : new String[] { "SELECT 'secret", "SELECT \"secret", "SELECT /* secret", "SELECT $x$ secret" }) {
+			String source = sql.contains("$") == true ? "postgresql" : "mysql";
+
+			assertFalse(SlowQueryLog.fingerprint(source, sql).contains("secret"), sql);
+		}
+	}
+}